@@ -0,0 +1,163 @@
+package ru.practicum.shareit.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares bulk item and booking inserts with IDENTITY ids, which make Hibernate insert row by row, and with pooled
+ * sequence ids, which let it batch. Both run the real entities on H2 with {@code hibernate.jdbc.batch_size=50}; the
+ * IDENTITY run turns the id columns back into identity columns and maps them with {@code identity-orm.xml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int ROWS = 500;
+    private static final List<String> IDENTITY_TABLES = List.of("users", "items", "booking");
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    private String idGeneration;
+
+    private SessionFactory sessionFactory;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = "jdbc:h2:mem:bulk-" + idGeneration + ";DB_CLOSE_DELAY=-1";
+        boolean identity = idGeneration.equals("IDENTITY");
+
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+        if (identity)
+            restoreIdentityColumns(url);
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Item.class)
+                .addAnnotatedClass(Booking.class)
+                .addAnnotatedClass(ItemRequest.class)
+                .addAnnotatedClass(Comment.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .setProperty("hibernate.cache.use_second_level_cache", "false");
+        if (identity)
+            configuration.addResource("identity-orm.xml");
+        sessionFactory = configuration.buildSessionFactory();
+
+        owner = User.builder().name("owner").email("owner@mail.ru").build();
+        booker = User.builder().name("booker").email("booker@mail.ru").build();
+        item = Item.builder().name("item").description("item description").available(true).owner(owner).build();
+        sessionFactory.inTransaction(session -> {
+            session.persist(owner);
+            session.persist(booker);
+            session.persist(item);
+        });
+    }
+
+    private static void restoreIdentityColumns(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String table : IDENTITY_TABLES)
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id INTEGER GENERATED BY DEFAULT AS IDENTITY");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from Booking").executeUpdate();
+            session.createMutationQuery("delete from Item i where i.id <> :id")
+                    .setParameter("id", item.getId())
+                    .executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void close() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertItems() {
+        inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(Item.builder()
+                        .name("item " + i)
+                        .description("item " + i + " description")
+                        .available(true)
+                        .owner(owner)
+                        .build());
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(Booking.builder()
+                        .start(start.plusDays(i))
+                        .end(start.plusDays(i).plusHours(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+        });
+    }
+
+    private void inTransaction(Consumer<Session> work) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            work.accept(session);
+            transaction.commit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load against a running gateway or server, used to compare platform and virtual thread modes.
+ * Run with {@code java -cp benchmark/target/benchmarks.jar ru.practicum.shareit.benchmark.GatewayLoadTest <url> <concurrency> <requests>}.
+ */
+public class GatewayLoadTest {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/users");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", "1")
+                .GET()
+                .build();
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500)
+                                errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s concurrency=%d requests=%d errors=%d%n", uri, concurrency, requests, errors.get());
+        System.out.printf("throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1e6,
+                latencies[(int) (requests * 0.99)] / 1e6,
+                latencies[requests - 1] / 1e6);
+    }
+}
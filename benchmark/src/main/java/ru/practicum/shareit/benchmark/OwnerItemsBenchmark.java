@@ -0,0 +1,152 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearch;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Measures owner item aggregation of {@link ItemServiceImpl#getUserItems(Long, int)} on in-memory repositories.
+ * Run with {@code java -jar benchmark/target/benchmarks.jar -prof gc} to see allocation per owner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerItemsBenchmark {
+    private static final long OWNER_ID = 1L;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "1000", "10000"})
+    private int items;
+
+    private List<ItemWithBookingsDto> ownerItems;
+    private List<Comment> comments;
+    private List<CommentView> commentViews;
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setup() {
+        User owner = User.builder().id(OWNER_ID).name("owner").email("owner@mail.ru").build();
+        User author = User.builder().id(2L).name("author").email("author@mail.ru").build();
+
+        ownerItems = new ArrayList<>(items);
+        comments = new ArrayList<>(items * COMMENTS_PER_ITEM);
+        for (long id = 1; id <= items; id++) {
+            Item item = Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("item " + id + " description")
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            ownerItems.add(new OwnedItem(id, item.getName(), item.getDescription(), true, id, 2L, id + items, 2L));
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(Comment.builder()
+                        .id(id * COMMENTS_PER_ITEM + c)
+                        .text("comment " + c)
+                        .item(item)
+                        .author(author)
+                        .created(LocalDateTime.now())
+                        .build());
+            }
+        }
+        commentViews = comments.stream()
+                .map(c -> new CommentView(c.getId(), c.getItem().getId(), c.getText(), c.getAuthor().getName(), c.getCreated()))
+                .toList();
+
+        itemService = new ItemServiceImpl(
+                stub(ItemRepository.class, Map.of("findAllWithBookingsByOwnerId", args -> ownerItems)),
+                stub(UserRepository.class, Map.of("existsUserById", args -> true)),
+                stub(BookingRepository.class, Map.of()),
+                stub(CommentRepository.class, Map.of("findLatestViewsByItemIdIn", args -> commentViews)),
+                stub(ItemRequestRepository.class, Map.of()),
+                stub(ItemSearch.class, Map.of())
+        );
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> groupByItemId() {
+        return itemService.getUserItems(OWNER_ID, COMMENTS_PER_ITEM);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> groupByResponseDto() {
+        Map<ItemResponseDto, List<Comment>> itemComments = comments.stream()
+                .collect(groupingBy(c -> ItemMapper.toItemResponseDto(c.getItem()), toList()));
+
+        return ownerItems.stream()
+                .map(item -> {
+                    ItemResponseDto i = ItemMapper.toItemResponseDto(item);
+                    i.setComments(itemComments.getOrDefault(i, List.of()).stream()
+                            .map(CommentMapper::toCommentResponseDto)
+                            .collect(toList()));
+                    return i;
+                })
+                .collect(toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(
+                repository.getClassLoader(),
+                new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null)
+                        throw new UnsupportedOperationException(method.getName());
+                    return answer.apply(args);
+                }
+        );
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class OwnedItem implements ItemWithBookingsDto {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long lastBookingId;
+        private final Long lastBookerId;
+        private final Long nextBookingId;
+        private final Long nextBookerId;
+    }
+}
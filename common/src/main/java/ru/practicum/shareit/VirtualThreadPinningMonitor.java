@@ -0,0 +1,89 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier (synchronized blocks, native frames) while virtual threads are on.
+ * Every event is counted once in {@code jvm.threads.virtual.pinned}, tagged with the given {@code source} when any
+ * frame matches the source predicate and with {@code other} otherwise.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+    public static final String METER = "jvm.threads.virtual.pinned";
+    public static final String OTHER_SOURCE = "other";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Predicate<RecordedFrame> JDK_FRAME = inPackages("java.", "jdk.", "sun.");
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Counter pinnedInSource;
+    private final Counter pinnedElsewhere;
+    private final String source;
+    private final Predicate<RecordedFrame> sourceFrame;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold,
+                                       String source, Predicate<RecordedFrame> sourceFrame) {
+        this.pinnedInSource = meterRegistry.counter(METER, "source", source);
+        this.pinnedElsewhere = meterRegistry.counter(METER, "source", OTHER_SOURCE);
+        this.source = source;
+        this.sourceFrame = sourceFrame;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Matches frames whose declaring class starts with one of the given package prefixes.
+     */
+    public static Predicate<RecordedFrame> inPackages(String... prefixes) {
+        List<String> packages = List.of(prefixes);
+        return frame -> {
+            String type = frame.getMethod().getType().getName();
+            return packages.stream().anyMatch(type::startsWith);
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        boolean inSource = frames.stream().anyMatch(sourceFrame);
+
+        (inSource ? pinnedInSource : pinnedElsewhere).increment();
+
+        log.warn("Virtual thread pinned for {} ms{}\n{}",
+                event.getDuration().toMillis(),
+                inSource ? " inside " + source : "",
+                frames.stream()
+                        .dropWhile(JDK_FRAME)
+                        .limit(LOGGED_FRAMES)
+                        .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                                + ":" + frame.getLineNumber())
+                        .collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class VirtualThreadPinningMonitorTest {
+    private static final Object LOCK = new Object();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void pinningInSourceIsCountedOnceUnderSourceTag() throws InterruptedException {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5), "test",
+                VirtualThreadPinningMonitor.inPackages(VirtualThreadPinningMonitorTest.class.getName()));
+
+        double total = pinUntilReported(monitor);
+
+        assertThat(counter("test").count(), equalTo(total));
+        assertThat(counter(VirtualThreadPinningMonitor.OTHER_SOURCE).count(), equalTo(0.0));
+    }
+
+    @Test
+    public void pinningElsewhereIsCountedOnceUnderOtherTag() throws InterruptedException {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5), "test",
+                VirtualThreadPinningMonitor.inPackages("org.example."));
+
+        double total = pinUntilReported(monitor);
+
+        assertThat(counter(VirtualThreadPinningMonitor.OTHER_SOURCE).count(), equalTo(total));
+        assertThat(counter("test").count(), equalTo(0.0));
+    }
+
+    @Test
+    public void everyCounterCarriesSourceTag() {
+        new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5), "test",
+                VirtualThreadPinningMonitor.inPackages("org.example."));
+
+        Collection<Counter> counters = registry.find(VirtualThreadPinningMonitor.METER).counters();
+
+        assertThat(counters.stream().map(c -> c.getId().getTag("source")).toList(),
+                containsInAnyOrder("test", VirtualThreadPinningMonitor.OTHER_SOURCE));
+    }
+
+    /**
+     * Pins a virtual thread until the monitor has reported at least one event, since the recording may start a little
+     * after {@code start()} returns, then lets late events arrive and returns the total across all tags.
+     */
+    private double pinUntilReported(VirtualThreadPinningMonitor monitor) throws InterruptedException {
+        monitor.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (total() == 0 && System.nanoTime() < deadline) {
+                Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::sleepHoldingLock).join();
+                Thread.sleep(200);
+            }
+            Thread.sleep(1500);
+        } finally {
+            monitor.stop();
+        }
+        assertThat(total(), greaterThan(0.0));
+        return total();
+    }
+
+    private double total() {
+        return registry.find(VirtualThreadPinningMonitor.METER).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private Counter counter(String source) {
+        return registry.get(VirtualThreadPinningMonitor.METER).tag("source", source).counter();
+    }
+
+    private static void sleepHoldingLock() {
+        synchronized (LOCK) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
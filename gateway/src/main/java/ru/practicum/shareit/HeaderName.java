@@ -2,4 +2,5 @@ package ru.practicum.shareit;
 
 public class HeaderName {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String LAST_WRITE_COOKIE = "SHAREIT_LAST_WRITE";
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Watches for pinned virtual threads while virtual threads are on.
+ * Pinning inside the HTTP client to the server is tagged {@code source=http-client}, since it caps throughput at the carrier count.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PinningMonitorConfig {
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold, "http-client",
+                VirtualThreadPinningMonitor.inPackages("org.apache.hc.", "java.net.", "sun.net."));
+    }
+}
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -15,16 +18,21 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.DateBookingException;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.passthrough}") boolean passthrough,
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                passthrough
         );
     }
 
@@ -34,6 +42,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingCreateDto);
     }
 
+    public ResponseEntity<Object> createBatch(final long userId, List<BookingCreateDto> bookingCreateDtos) {
+        return post("/batch", userId, bookingCreateDtos);
+    }
+
     public ResponseEntity<Object> changeStatus(final long userId,
                                                Long bookingId,
                                                Boolean approved) {
@@ -48,19 +60,30 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(final long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        StringBuilder path = new StringBuilder("?state={state}");
+    public ResponseEntity<Object> getBookings(final long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state.name(),
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("?state={state}&size={size}");
+        appendCursor(path, parameters, cursor);
         return get(path.toString(), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingItemOwner(final long ownerId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        StringBuilder path = new StringBuilder("/owner").append("?state={state}");
+    public ResponseEntity<Object> getBookingItemOwner(final long ownerId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state.name(),
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("/owner").append("?state={state}&size={size}");
+        appendCursor(path, parameters, cursor);
         return get(path.toString(), ownerId, parameters);
     }
-}
\ No newline at end of file
+
+    private void appendCursor(StringBuilder path, Map<String, Object> parameters, String cursor) {
+        if (cursor == null)
+            return;
+        path.append("&cursor={cursor}");
+        parameters.put("cursor", cursor);
+    }
+}
@@ -1,5 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -18,11 +23,14 @@ import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.HeaderName;
 import ru.practicum.shareit.ValidateMarker;
 
+import java.util.List;
+
 
 @Slf4j
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingController {
     private final BookingClient bookingClient;
 
@@ -33,6 +41,14 @@ public class BookingController {
         return bookingClient.create(userId, bookingCreateDto);
     }
 
+    @Validated(ValidateMarker.Create.class)
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                              @RequestBody @Valid @Size(min = 1, max = 1000, groups = ValidateMarker.Create.class) List<BookingCreateDto> bookingCreateDtos) {
+        log.info("POST /bookings/batch {} bookings {}: {}", bookingCreateDtos.size(), HeaderName.USER_ID, userId);
+        return bookingClient.createBatch(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> changeStatus(@RequestHeader(HeaderName.USER_ID) final long userId,
                                    @PathVariable Long bookingId,
@@ -48,17 +64,23 @@ public class BookingController {
         return bookingClient.get(userId, bookingId);
     }
 
+    @Validated
     @GetMapping
     public ResponseEntity<Object> getByState(@RequestHeader(HeaderName.USER_ID) final long userId,
-                                       @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("GET /bookings?state={} {}: {}", state.name(), HeaderName.USER_ID, userId);
-        return bookingClient.getBookings(userId, state);
+                                       @RequestParam(defaultValue = "ALL") BookingState state,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, userId);
+        return bookingClient.getBookings(userId, state, cursor, size);
     }
 
+    @Validated
     @GetMapping("/owner")
     public ResponseEntity<Object> getByItemsOwner(@RequestHeader(HeaderName.USER_ID) final long ownerId,
-                                                  @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("GET /bookings/owner?state={} {}: {}", state.name(), HeaderName.USER_ID, ownerId);
-        return bookingClient.getBookingItemOwner(ownerId, state);
+                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings/owner?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, ownerId);
+        return bookingClient.getBookingItemOwner(ownerId, state, cursor, size);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.exception.DateBookingException;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl,
+                                 WebClient.Builder builder,
+                                 ClientHttpConnector serverHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(serverHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(final long userId, BookingCreateDto bookingCreateDto) {
+        if (!bookingCreateDto.getEnd().isAfter(bookingCreateDto.getStart()))
+            throw new DateBookingException("Некорректные даты бронированя");
+        return post("", userId, bookingCreateDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(final long userId, List<BookingCreateDto> bookingCreateDtos) {
+        return post("/batch", userId, bookingCreateDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> changeStatus(final long userId,
+                                                               Long bookingId,
+                                                               Boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        StringBuilder path = new StringBuilder("/").append(bookingId).append("?approved={approved}");
+        return patch(path.toString(), userId, parameters, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(final long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(final long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state.name(),
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("?state={state}&size={size}");
+        appendCursor(path, parameters, cursor);
+        return get(path.toString(), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingItemOwner(final long ownerId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state.name(),
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("/owner").append("?state={state}&size={size}");
+        appendCursor(path, parameters, cursor);
+        return get(path.toString(), ownerId, parameters);
+    }
+
+    private void appendCursor(StringBuilder path, Map<String, Object> parameters, String cursor) {
+        if (cursor == null)
+            return;
+        path.append("&cursor={cursor}");
+        parameters.put("cursor", cursor);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.HeaderName;
+import ru.practicum.shareit.ValidateMarker;
+
+import java.util.List;
+
+
+@Slf4j
+@Controller
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                         @Validated(ValidateMarker.Create.class) @RequestBody BookingCreateDto bookingCreateDto) {
+        log.info("POST /bookings {} {}: {}", bookingCreateDto, HeaderName.USER_ID, userId);
+        return bookingClient.create(userId, bookingCreateDto);
+    }
+
+    @Validated(ValidateMarker.Create.class)
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBatch(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                              @RequestBody @Valid @Size(min = 1, max = 1000, groups = ValidateMarker.Create.class) List<BookingCreateDto> bookingCreateDtos) {
+        log.info("POST /bookings/batch {} bookings {}: {}", bookingCreateDtos.size(), HeaderName.USER_ID, userId);
+        return bookingClient.createBatch(userId, bookingCreateDtos);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> changeStatus(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                               @PathVariable Long bookingId,
+                                                               @RequestParam Boolean approved) {
+        log.info("PATCH /bookings/{}?approved={} {}: {}", bookingId, approved.toString(), HeaderName.USER_ID, userId);
+        return bookingClient.changeStatus(userId, bookingId, approved);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                      @PathVariable Long bookingId) {
+        log.info("GET /bookings/{} {}: {}", bookingId, HeaderName.USER_ID, userId);
+        return bookingClient.get(userId, bookingId);
+    }
+
+    @Validated
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByState(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, userId);
+        return bookingClient.getBookings(userId, state, cursor, size);
+    }
+
+    @Validated
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByItemsOwner(@RequestHeader(HeaderName.USER_ID) final long ownerId,
+                                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings/owner?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, ownerId);
+        return bookingClient.getBookingItemOwner(ownerId, state, cursor, size);
+    }
+}
@@ -1,23 +1,58 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.WebUtils;
 import ru.practicum.shareit.HeaderName;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade", "date"
+    );
+
     protected final RestTemplate rest;
 
+    private final boolean passthrough;
+
+    @Nullable
+    private final ServerResponseCache responseCache;
+
     public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
+
+    public BaseClient(RestTemplate rest, boolean passthrough) {
+        this(rest, passthrough, null);
+    }
+
+    public BaseClient(RestTemplate rest, boolean passthrough, @Nullable ServerResponseCache responseCache) {
         this.rest = rest;
+        this.passthrough = passthrough;
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -32,6 +67,72 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET through the response cache. The entry is keyed by the expanded URI and, when given, the user id, since
+     * responses such as an item with its bookings differ per requesting user. A client carrying the last-write cookie
+     * skips the cached copy, which may predate its own write, and refreshes it from the primary. The client's own
+     * {@code If-None-Match} is answered with 304 when it matches the tag of the response the gateway would return.
+     */
+    protected ResponseEntity<Object> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+
+        HttpServletRequest clientRequest = currentRequest();
+        String clientTags = clientRequest != null ? clientRequest.getHeader(HttpHeaders.IF_NONE_MATCH) : null;
+        boolean recentWrite = clientRequest != null
+                && WebUtils.getCookie(clientRequest, HeaderName.LAST_WRITE_COOKIE) != null;
+
+        URI uri = expand(path, parameters);
+        String key = userId != null ? userId + " " + uri : uri.toString();
+        ServerResponseCache.Entry cached = recentWrite ? null : responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            return notModifiedIfMatches(cached.toResponseEntity(), clientTags);
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.headers().getETag());
+        } else if (clientTags != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, clientTags);
+        }
+
+        try (ClientHttpResponse response = send(HttpMethod.GET, uri, headers, null)) {
+            HttpHeaders responseHeaders = gatewayHeaders(response.getHeaders());
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                HttpHeaders revalidated = new HttpHeaders();
+                revalidated.putAll(cached.headers());
+                revalidated.setCacheControl(responseHeaders.getCacheControl());
+                return notModifiedIfMatches(
+                        responseCache.put(key, cached.status(), revalidated, cached.body()).toResponseEntity(), clientTags);
+            }
+
+            byte[] body = response.getBody().readAllBytes();
+            if (response.getStatusCode().is2xxSuccessful() && ServerResponseCache.isStorable(responseHeaders)) {
+                responseCache.put(key, response.getStatusCode(), responseHeaders, body);
+            } else if (!response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                responseCache.invalidate(key);
+            }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(responseHeaders)
+                    .body(body);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops the cached responses of every user whose URI starts with the expanded {@code path}, so a write made
+     * through this gateway is seen on its next read without waiting for {@code max-age} to run out.
+     */
+    protected void evictCached(String path) {
+        if (responseCache == null) {
+            return;
+        }
+        String prefix = expand(path, null).toString();
+        responseCache.invalidateIf(key -> key.substring(key.indexOf(' ') + 1).startsWith(prefix));
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -80,7 +181,48 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Opens the server stream before the gateway commits its own status, so an error from the server reaches the
+     * client with its status and body instead of a truncated 200. The returned body copies the stream and closes
+     * the server response.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType accept, Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(accept));
+
+        ClientHttpResponse response;
+        try {
+            response = send(HttpMethod.GET, uri, headers, null);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        try {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                    .headers(gatewayHeaders(response.getHeaders()));
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                try (response) {
+                    byte[] body = response.getBody().readAllBytes();
+                    return responseBuilder.body(out -> out.write(body));
+                }
+            }
+            return responseBuilder.body(out -> {
+                try (response) {
+                    response.getBody().transferTo(out);
+                }
+            });
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (passthrough) {
+            return passThrough(method, path, userId, parameters, body);
+        }
+
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
@@ -96,6 +238,57 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Sends the request without a RestTemplate round trip and hands the server's status, headers and body stream
+     * to the caller as is. The body is copied to the client by {@code ResourceHttpMessageConverter}, which closes
+     * the stream and so releases the pooled connection.
+     */
+    private <T> ResponseEntity<Object> passThrough(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = expand(path, parameters);
+
+        ClientHttpResponse response;
+        try {
+            response = send(method, uri, defaultHeaders(userId), body);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        try {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(gatewayHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(response.getBody()));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private ClientHttpResponse send(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+        request.getHeaders().addAll(headers);
+        if (body != null) {
+            writeBody(body, request);
+        }
+        return request.execute();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBody(Object body, ClientHttpRequest request) throws IOException {
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), MediaType.APPLICATION_JSON)) {
+                ((HttpMessageConverter<Object>) converter).write(body, MediaType.APPLICATION_JSON, request);
+                return;
+            }
+        }
+        throw new IllegalStateException("No JSON converter for " + body.getClass().getName());
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -103,6 +296,63 @@ public class BaseClient {
         if (userId != null) {
             headers.set(HeaderName.USER_ID, String.valueOf(userId));
         }
+        forwardLastWrite(headers);
+        return headers;
+    }
+
+    /**
+     * Passes the client's last-write cookie on to the server, so the server keeps its reads on the primary.
+     * The server sets the cookie itself; the gateway relays that {@code Set-Cookie} with the other response headers.
+     */
+    private static void forwardLastWrite(HttpHeaders headers) {
+        HttpServletRequest clientRequest = currentRequest();
+        if (clientRequest != null) {
+            Cookie lastWrite = WebUtils.getCookie(clientRequest, HeaderName.LAST_WRITE_COOKIE);
+            if (lastWrite != null) {
+                headers.add(HttpHeaders.COOKIE, lastWrite.getName() + "=" + lastWrite.getValue());
+            }
+        }
+    }
+
+    @Nullable
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    private static ResponseEntity<Object> notModifiedIfMatches(ResponseEntity<Object> response, @Nullable String clientTags) {
+        String tag = response.getHeaders().getETag();
+        if (clientTags == null || tag == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        for (String clientTag : clientTags.split(",")) {
+            String candidate = clientTag.trim();
+            if (candidate.equals("*") || weakTag(candidate).equals(weakTag(tag))) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.putAll(response.getHeaders());
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .headers(headers)
+                        .build();
+            }
+        }
+        return response;
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so {@code W/"v1"} and {@code "v1"} name the same representation.
+     */
+    private static String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static HttpHeaders gatewayHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase()))
+                headers.addAll(name, values);
+        });
         return headers;
     }
 
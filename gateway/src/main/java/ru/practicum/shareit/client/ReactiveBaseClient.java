@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.HeaderName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveBaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade", "date"
+    );
+
+    protected final WebClient webClient;
+
+    public ReactiveBaseClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return exchange(HttpMethod.GET, path, userId, parameters, null, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Object body) {
+        return post(path, null, null, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, Object body) {
+        return post(path, userId, null, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, Object body) {
+        return exchange(HttpMethod.POST, path, userId, parameters, body, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, Object body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return exchange(HttpMethod.PATCH, path, userId, parameters, body, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return exchange(HttpMethod.DELETE, path, null, null, null, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, MediaType accept, Map<String, Object> parameters) {
+        return exchange(HttpMethod.GET, path, userId, parameters, null, accept);
+    }
+
+    /**
+     * Relays the server's status, headers and body buffers without decoding them; error statuses are passed on as is.
+     * The client's last-write cookie, put into the subscriber context by {@link ReactiveServerClientConfig}, is passed
+     * on to the server.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable Object body, MediaType accept) {
+        return Mono.deferContextual(context -> {
+            HttpCookie lastWrite = context.getOrDefault(HeaderName.LAST_WRITE_COOKIE, null);
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(headers -> defaultHeaders(headers, userId, accept, lastWrite));
+
+            WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+
+            return spec.retrieve()
+                    .onStatus(status -> true, response -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class)
+                    .map(ReactiveBaseClient::prepareGatewayResponse);
+        });
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId, MediaType accept, @Nullable HttpCookie lastWrite) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(accept));
+        if (userId != null) {
+            headers.set(HeaderName.USER_ID, String.valueOf(userId));
+        }
+        if (lastWrite != null) {
+            headers.add(HttpHeaders.COOKIE, lastWrite.toString());
+        }
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase()))
+                headers.addAll(name, values);
+        });
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers)
+                .body(response.getBody());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.server.WebFilter;
+import ru.practicum.shareit.HeaderName;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.context.Context;
+
+/**
+ * Reactor Netty counterpart of {@link ServerHttpClientConfig}, used when the gateway runs as a reactive application.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(ServerHttpClientProperties.class)
+public class ReactiveServerClientConfig {
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(ServerHttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .maxLifeTime(properties.getConnectionTimeToLive())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector serverHttpConnector(ConnectionProvider serverConnectionProvider,
+                                                   ServerHttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Exposes the client's last-write cookie to {@link ReactiveBaseClient} through the subscriber context, as a
+     * reactive request has no thread-bound request attributes.
+     */
+    @Bean
+    public WebFilter lastWriteCookieFilter() {
+        return (exchange, chain) -> {
+            HttpCookie lastWrite = exchange.getRequest().getCookies().getFirst(HeaderName.LAST_WRITE_COOKIE);
+            return lastWrite == null
+                    ? chain.filter(exchange)
+                    : chain.filter(exchange).contextWrite(Context.of(HeaderName.LAST_WRITE_COOKIE, lastWrite));
+        };
+    }
+}
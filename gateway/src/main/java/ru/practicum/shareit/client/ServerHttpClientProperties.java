@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpClientProperties {
+    private int maxConnections = 200;
+
+    private int maxConnectionsPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    private DataSize responseCacheSize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Predicate;
+
+/**
+ * Server responses kept by the gateway for conditional GETs. Entries are bounded by the total size of their bodies
+ * and are served without a round trip only while the server's {@code max-age} holds; after that, or when the server
+ * sent none, they are revalidated with {@code If-None-Match}.
+ */
+public class ServerResponseCache {
+    private final Cache<String, Entry> cache;
+
+    public ServerResponseCache(DataSize maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.body().length)
+                .recordStats()
+                .build();
+    }
+
+    @Nullable
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public Entry put(String key, HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        Entry entry = new Entry(status, headers, body, freshUntil(headers));
+        cache.put(key, entry);
+        return entry;
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateIf(Predicate<String> key) {
+        cache.asMap().keySet().removeIf(key);
+    }
+
+    public Cache<String, Entry> getNativeCache() {
+        return cache;
+    }
+
+    public static boolean isStorable(HttpHeaders headers) {
+        return headers.getETag() != null && !hasDirective(headers, "no-store");
+    }
+
+    private static long freshUntil(HttpHeaders headers) {
+        if (hasDirective(headers, "no-cache"))
+            return 0;
+        for (String directive : directives(headers)) {
+            if (directive.startsWith("max-age=")) {
+                try {
+                    return System.currentTimeMillis() + Long.parseLong(directive.substring(8)) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String name) {
+        for (String directive : directives(headers)) {
+            if (directive.equals(name))
+                return true;
+        }
+        return false;
+    }
+
+    private static String[] directives(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null)
+            return new String[0];
+        return cacheControl.toLowerCase().replace(" ", "").split(",");
+    }
+
+    public record Entry(HttpStatusCode status, HttpHeaders headers, byte[] body, long freshUntil) {
+        public boolean isFresh() {
+            return System.currentTimeMillis() < freshUntil;
+        }
+
+        public ResponseEntity<Object> toResponseEntity() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
+}
@@ -2,33 +2,44 @@ package ru.practicum.shareit.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
-import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Error bodies for both gateway stacks. The gateway controllers are plain {@code @Controller}s returning
+ * {@code ResponseEntity}, so the advice is bound by that annotation rather than {@code @RestController}.
+ */
 @Slf4j
-@RestControllerAdvice(annotations = RestController.class)
+@RestControllerAdvice(annotations = Controller.class)
 public class ResponseExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected Map<String, String> validationException(MethodArgumentNotValidException e) {
-        Map<String, String> errors = new HashMap<>();
-
-        e.getBindingResult().getAllErrors().forEach((error) -> {
-            String errorMessage = error.getDefaultMessage();
-            errors.put("error", errorMessage);
-        });
-
-        log.error("Status 400 Bad Request Validation Exception {}", errors);
+        return validationErrors(e.getBindingResult().getAllErrors());
+    }
 
-        return errors;
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    protected Map<String, String> reactiveValidationException(WebExchangeBindException e) {
+        return validationErrors(e.getAllErrors());
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -37,9 +48,22 @@ public class ResponseExceptionHandler {
         return Map.of("exception", e.getClass().getName(), "error", "Unknown state: " + e.getValue().toString());
     }
 
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    protected Map<String, String> reactiveInputExceptionHandler(ServerWebInputException e) {
+        log.error("Status 400 Bad Request {}", e.getMessage());
+        if (e.getCause() instanceof TypeMismatchException mismatch && mismatch.getValue() != null) {
+            return Map.of("exception", e.getClass().getName(), "error", "Unknown state: " + mismatch.getValue());
+        }
+        return Map.of("exception", e.getClass().getName(), "error", String.valueOf(e.getReason()));
+    }
+
     @ExceptionHandler({
             DateBookingException.class,
-            ConstraintViolationException.class
+            ConstraintViolationException.class,
+            HandlerMethodValidationException.class,
+            HttpMessageNotReadableException.class,
+            ServletRequestBindingException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected Map<String, String> notBookerExceptionHandler(Exception e) {
@@ -48,9 +72,27 @@ public class ResponseExceptionHandler {
     }
 
     @ExceptionHandler(Throwable.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    protected Map<String, String> runtimeExceptionHandler(Throwable e) {
+    protected ResponseEntity<Map<String, String>> runtimeExceptionHandler(Throwable e) {
+        if (e instanceof ErrorResponse errorResponse) {
+            log.error("Status {} {}", errorResponse.getStatusCode().value(), e.getMessage());
+            return ResponseEntity.status(errorResponse.getStatusCode())
+                    .body(Map.of("exception", e.getClass().toString(), "error", String.valueOf(e.getMessage())));
+        }
         log.error("Status 500 Internal Server Error {}\n{}", e.getMessage(), e.getStackTrace());
-        return Map.of("exception", e.getClass().toString(), "error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("exception", e.getClass().toString(), "error", String.valueOf(e.getMessage())));
+    }
+
+    private static Map<String, String> validationErrors(List<ObjectError> bindingErrors) {
+        Map<String, String> errors = new HashMap<>();
+
+        bindingErrors.forEach((error) -> {
+            String errorMessage = error.getDefaultMessage();
+            errors.put("error", errorMessage);
+        });
+
+        log.error("Status 400 Bad Request Validation Exception {}", errors);
+
+        return errors;
     }
 }
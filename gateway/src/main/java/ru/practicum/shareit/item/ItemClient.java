@@ -2,28 +2,41 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      ServerResponseCache serverResponseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                passthrough,
+                serverResponseCache
         );
     }
 
@@ -36,23 +49,60 @@ public class ItemClient extends BaseClient {
         return patch(path.toString(), userId, itemCreateDto);
     }
 
-    public ResponseEntity<Object> get(final long userId, Long itemId) {
-        StringBuilder path = new StringBuilder("/").append(itemId);
-        return get(path.toString(), userId);
+    public ResponseEntity<Object> get(final long userId, Long itemId, int commentsSize) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("?commentsSize={commentsSize}");
+        Map<String, Object> parameters = Map.of(
+                "commentsSize", commentsSize
+        );
+        return getCached(path.toString(), userId, parameters);
     }
 
-    public ResponseEntity<Object> getUserItems(final long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getComments(Long itemId, String cursor, int size) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/comments?size={size}");
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "size", size
+        ));
+        if (cursor != null) {
+            path.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        }
+        return get(path.toString(), null, parameters);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
-        StringBuilder path = new StringBuilder("/search").append("?text={text}");
+    public ResponseEntity<Object> getUserItems(final long userId, int commentsSize) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "commentsSize", commentsSize
+        );
+        return get("?commentsSize={commentsSize}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/availability?from={from}&to={to}");
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
         return get(path.toString(), null, parameters);
     }
 
+    public ResponseEntity<Object> searchItem(String text, int from, int size) {
+        StringBuilder path = new StringBuilder("/search").append("?text={text}&from={from}&size={size}");
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get(path.toString(), null, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamSearchItem(Long userId, String text) {
+        StringBuilder path = new StringBuilder("/search/stream").append("?text={text}");
+        Map<String, Object> parameters = Map.of(
+                "text", text
+        );
+        return stream(path.toString(), userId, MediaType.APPLICATION_NDJSON, parameters);
+    }
+
     public ResponseEntity<Object> addComment(final long userId, Long itemId, CommentCreateDto commentCreateDto) {
         StringBuilder path = new StringBuilder("/").append(itemId).append("/comment");
         return post(path.toString(), userId, commentCreateDto);
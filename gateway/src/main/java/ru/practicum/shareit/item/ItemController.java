@@ -1,7 +1,13 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,17 +19,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.HeaderName;
 import ru.practicum.shareit.ValidateMarker;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @Slf4j
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemController {
     private final ItemClient itemClient;
 
@@ -42,25 +51,60 @@ public class ItemController {
         return itemClient.update(userId, itemId, item);
     }
 
+    @Validated
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> get(@RequestHeader(HeaderName.USER_ID) final long userId,
-                               @PathVariable Long itemId) {
-        log.info("GET /items/{} {}: {}", itemId, HeaderName.USER_ID, userId);
-        return itemClient.get(userId, itemId);
+                                      @PathVariable Long itemId,
+                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize) {
+        log.info("GET /items/{}?commentsSize={} {}: {}", itemId, commentsSize, HeaderName.USER_ID, userId);
+        return itemClient.get(userId, itemId, commentsSize);
     }
 
+    @Validated
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /items/{}/comments?cursor={}&size={}", itemId, cursor, size);
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
+    @Validated
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader(HeaderName.USER_ID) final long userId) {
-        log.info("GET /items {}: {}", HeaderName.USER_ID, userId);
-        return itemClient.getUserItems(userId);
+    public ResponseEntity<Object> getUserItems(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                               @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize) {
+        log.info("GET /items?commentsSize={} {}: {}", commentsSize, HeaderName.USER_ID, userId);
+        return itemClient.getUserItems(userId, commentsSize);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/{}/availability?from={}&to={}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
+    @Validated
     @GetMapping("/search")
-    public ResponseEntity<Object> searchByName(@RequestParam String text) {
+    public ResponseEntity<Object> searchByName(@RequestParam String text,
+                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                               @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
         if (text.isBlank())
             return ResponseEntity.ok(Collections.emptyList());
-        log.info("GET /items/search?text={}", text);
-        return itemClient.searchItem(text);
+        log.info("GET /items/search?text={}&from={}&size={}", text, from, size);
+        return itemClient.searchItem(text, from, size);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchByName(@RequestHeader(value = HeaderName.USER_ID, required = false) Long userId,
+                                                                    @RequestParam String text) {
+        log.info("GET /items/search/stream?text={} {}: {}", text, HeaderName.USER_ID, userId);
+        if (text.isBlank())
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> { });
+        return itemClient.streamSearchItem(userId, text);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl,
+                              WebClient.Builder builder,
+                              ClientHttpConnector serverHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(serverHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(final long userId, ItemCreateDto itemCreateDto) {
+        return post("", userId, itemCreateDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(final long userId, Long itemId, ItemCreateDto itemCreateDto) {
+        StringBuilder path = new StringBuilder("/").append(itemId);
+        return patch(path.toString(), userId, itemCreateDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(final long userId, Long itemId, int commentsSize) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("?commentsSize={commentsSize}");
+        Map<String, Object> parameters = Map.of(
+                "commentsSize", commentsSize
+        );
+        return get(path.toString(), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getComments(Long itemId, String cursor, int size) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/comments?size={size}");
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "size", size
+        ));
+        if (cursor != null) {
+            path.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserItems(final long userId, int commentsSize) {
+        Map<String, Object> parameters = Map.of(
+                "commentsSize", commentsSize
+        );
+        return get("?commentsSize={commentsSize}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/availability?from={from}&to={to}");
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get(path.toString(), null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItem(String text, int from, int size) {
+        StringBuilder path = new StringBuilder("/search").append("?text={text}&from={from}&size={size}");
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get(path.toString(), null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamSearchItem(Long userId, String text) {
+        StringBuilder path = new StringBuilder("/search/stream").append("?text={text}");
+        Map<String, Object> parameters = Map.of(
+                "text", text
+        );
+        return stream(path.toString(), userId, MediaType.APPLICATION_NDJSON, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(final long userId, Long itemId, CommentCreateDto commentCreateDto) {
+        StringBuilder path = new StringBuilder("/").append(itemId).append("/comment");
+        return post(path.toString(), userId, commentCreateDto);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.HeaderName;
+import ru.practicum.shareit.ValidateMarker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Controller
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemController {
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                         @Validated(ValidateMarker.Create.class) @RequestBody ItemCreateDto item) {
+        log.info("POST /items {} {}: {}", item, HeaderName.USER_ID, userId);
+        return itemClient.create(userId, item);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                         @PathVariable Long itemId,
+                                                         @Validated(ValidateMarker.Update.class) @RequestBody ItemCreateDto item) {
+        log.info("PATCH /items/{} {} {}: {}", itemId, item, HeaderName.USER_ID, userId);
+        return itemClient.update(userId, itemId, item);
+    }
+
+    @Validated
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                      @PathVariable Long itemId,
+                                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize) {
+        log.info("GET /items/{}?commentsSize={} {}: {}", itemId, commentsSize, HeaderName.USER_ID, userId);
+        return itemClient.get(userId, itemId, commentsSize);
+    }
+
+    @Validated
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getComments(@PathVariable Long itemId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /items/{}/comments?cursor={}&size={}", itemId, cursor, size);
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
+    @Validated
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserItems(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                               @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize) {
+        log.info("GET /items?commentsSize={} {}: {}", commentsSize, HeaderName.USER_ID, userId);
+        return itemClient.getUserItems(userId, commentsSize);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(@PathVariable Long itemId,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/{}/availability?from={}&to={}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @Validated
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchByName(@RequestParam String text,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                               @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        if (text.isBlank())
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(EMPTY_LIST))));
+        log.info("GET /items/search?text={}&from={}&size={}", text, from, size);
+        return itemClient.searchItem(text, from, size);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamSearchByName(@RequestHeader(value = HeaderName.USER_ID, required = false) Long userId,
+                                                                     @RequestParam String text) {
+        log.info("GET /items/search/stream?text={} {}: {}", text, HeaderName.USER_ID, userId);
+        if (text.isBlank())
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(Flux.empty()));
+        return itemClient.streamSearchItem(userId, text);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createCommentToItem(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                                      @PathVariable Long itemId,
+                                                                      @Validated(ValidateMarker.Create.class) @RequestBody CommentCreateDto comment) {
+        log.info("POST /items/{}/comment {} {}: {}", itemId, comment, HeaderName.USER_ID, userId);
+        return itemClient.addComment(userId, itemId, comment);
+    }
+}
@@ -2,32 +2,45 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             @Value("${shareit-server.passthrough}") boolean passthrough,
+                             RestTemplateBuilder builder,
+                             ClientHttpRequestFactory serverRequestFactory,
+                             ServerResponseCache serverResponseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                passthrough,
+                serverResponseCache
         );
     }
 
     public ResponseEntity<Object> createRequest(final long userId, ItemRequestCreateDto itemRequestCreateDto) {
-        return post("", userId, itemRequestCreateDto);
+        ResponseEntity<Object> response = post("", userId, itemRequestCreateDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            evictCached("/all");
+        }
+        return response;
     }
 
     public ResponseEntity<Object> getUserRequests(final long userId) {
@@ -35,16 +48,16 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getRequests(long from, long size) {
-        StringBuilder path = new StringBuilder("/all").append("?from={from}&size{size}");
+        StringBuilder path = new StringBuilder("/all").append("?from={from}&size={size}");
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get(path.toString(), null, parameters);
+        return getCached(path.toString(), null, parameters);
     }
 
     public ResponseEntity<Object> getRequest(long requestId) {
         StringBuilder path = new StringBuilder("/").append(requestId);
-        return get(path.toString());
+        return getCached(path.toString(), null, null);
     }
 }
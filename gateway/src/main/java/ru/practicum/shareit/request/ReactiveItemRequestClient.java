@@ -0,0 +1,56 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    @Autowired
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                                     WebClient.Builder builder,
+                                     ClientHttpConnector serverHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(serverHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createRequest(final long userId, ItemRequestCreateDto itemRequestCreateDto) {
+        return post("", userId, itemRequestCreateDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserRequests(final long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequests(long from, long size) {
+        StringBuilder path = new StringBuilder("/all").append("?from={from}&size={size}");
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get(path.toString(), null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequest(long requestId) {
+        StringBuilder path = new StringBuilder("/").append(requestId);
+        return get(path.toString());
+    }
+}
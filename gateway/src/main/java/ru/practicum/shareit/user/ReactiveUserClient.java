@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl,
+                              WebClient.Builder builder,
+                              ClientHttpConnector serverHttpConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(serverHttpConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(final long userId, UserDto userDto) {
+        StringBuilder path = new StringBuilder("/").append(userId);
+        return patch(path.toString(), userId, userDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(final long userId) {
+        StringBuilder path = new StringBuilder("/").append(userId);
+        return delete(path.toString());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(final long userId) {
+        StringBuilder path = new StringBuilder("/").append(userId);
+        return get(path.toString());
+    }
+}
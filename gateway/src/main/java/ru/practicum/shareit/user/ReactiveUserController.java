@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.ValidateMarker;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Slf4j
+@Controller
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@Validated(ValidateMarker.Create.class) @RequestBody UserDto user) {
+        log.info("POST /users - {}", user);
+        return userClient.create(user);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable Long userId,
+                                                         @Validated(ValidateMarker.Update.class) @RequestBody UserDto user) {
+        log.info("PATCH /users/{} - {}", userId, user);
+        return userClient.update(userId, user);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(@PathVariable Long userId) {
+        log.info("DELETE /users/{}", userId);
+        return userClient.delete(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
+        log.info("GET /users");
+        return userClient.getAll();
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(@PathVariable Long userId) {
+        log.info("GET /users/{}", userId);
+        return userClient.getById(userId);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+public class BookingControllerTest {
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void invalidBodyIsBadRequest() throws Exception {
+        mvc.perform(post("/bookings")
+                        .header(HeaderName.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":1,\"start\":\"2030-01-01T12:00:00\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    public void unreadableBodyIsBadRequest() throws Exception {
+        mvc.perform(post("/bookings")
+                        .header(HeaderName.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    public void unknownStateIsBadRequest() throws Exception {
+        mvc.perform(get("/bookings?state=UNSUPPORTED")
+                        .header(HeaderName.USER_ID, 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown state: UNSUPPORTED")));
+    }
+
+    @Test
+    public void outOfRangeSizeIsBadRequest() throws Exception {
+        mvc.perform(get("/bookings?size=0")
+                        .header(HeaderName.USER_ID, 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    public void missingUserHeaderIsBadRequest() throws Exception {
+        mvc.perform(get("/bookings"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -0,0 +1,302 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ItemClientTest {
+    private static final String SERVER_URL = "http://shareit-server";
+    private static final String ITEM = "{\"id\":1,\"name\":\"Дрель\"}";
+    private static final String UPDATED_ITEM = "{\"id\":1,\"name\":\"Дрель ударная\"}";
+    private static final String REQUESTS = "[{\"id\":1,\"description\":\"Нужна дрель\"}]";
+
+    private MockServerRestTemplateCustomizer customizer;
+
+    @BeforeEach
+    public void setUp() {
+        customizer = new MockServerRestTemplateCustomizer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void streamSearchForwardsUserHeaderAndCopiesBody() throws IOException {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/search/stream?text=drill"))
+                .andExpect(header(HeaderName.USER_ID, "7"))
+                .andExpect(header("Accept", MediaType.APPLICATION_NDJSON_VALUE))
+                .andRespond(withSuccess("{\"id\":1}\n{\"id\":2}\n", MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = client.streamSearchItem(7L, "drill");
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(write(response.getBody()), equalTo("{\"id\":1}\n{\"id\":2}\n"));
+        server().verify();
+    }
+
+    @Test
+    public void streamSearchPropagatesServerError() throws IOException {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/search/stream?text=drill"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"Сервер недоступен\"}"));
+
+        ResponseEntity<StreamingResponseBody> response = client.streamSearchItem(null, "drill");
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(write(response.getBody()), equalTo("{\"error\":\"Сервер недоступен\"}"));
+        server().verify();
+    }
+
+    @Test
+    public void userItemsForwardCommentsSize() {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items?commentsSize=5"))
+                .andExpect(header(HeaderName.USER_ID, "1"))
+                .andRespond(withSuccess("[" + ITEM + "]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getUserItems(1L, 5);
+
+        server().verify();
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    @Test
+    public void freshResponseIsServedFromCache() {
+        ItemClient client = client(false);
+        server().expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        ResponseEntity<Object> first = client.get(1L, 1L, 20);
+        ResponseEntity<Object> second = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(second.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(body(second), equalTo(body(first)));
+    }
+
+    @Test
+    public void staleResponseIsRevalidatedWithIfNoneMatch() {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        client.get(1L, 1L, 20);
+        ResponseEntity<Object> revalidated = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(revalidated.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(body(revalidated), equalTo(ITEM));
+        assertThat(revalidated.getHeaders().getETag(), equalTo("\"v1\""));
+    }
+
+    @Test
+    public void changedResponseReplacesCachedCopy() {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess(UPDATED_ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v2\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.get(1L, 1L, 20);
+        ResponseEntity<Object> changed = client.get(1L, 1L, 20);
+        ResponseEntity<Object> revalidated = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(body(changed), equalTo(UPDATED_ITEM));
+        assertThat(body(revalidated), equalTo(UPDATED_ITEM));
+    }
+
+    @Test
+    public void cachedResponseIsNotSharedBetweenUsers() {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HeaderName.USER_ID, "1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"owner\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HeaderName.USER_ID, "2"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(UPDATED_ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"booker\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        ResponseEntity<Object> owner = client.get(1L, 1L, 20);
+        ResponseEntity<Object> booker = client.get(2L, 1L, 20);
+        ResponseEntity<Object> ownerAgain = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(body(owner), equalTo(ITEM));
+        assertThat(body(booker), equalTo(UPDATED_ITEM));
+        assertThat(body(ownerAgain), equalTo(ITEM));
+    }
+
+    @Test
+    public void clientTagMatchingCachedResponseIsNotModified() {
+        ItemClient client = client(false);
+        server().expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        client.get(1L, 1L, 20);
+        clientRequest().addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"v0\", \"v1\"");
+        ResponseEntity<Object> response = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getHeaders().getETag(), equalTo("\"v1\""));
+        assertThat(response.hasBody(), equalTo(false));
+    }
+
+    @Test
+    public void clientTagIsForwardedWhenNothingIsCached() {
+        ItemClient client = client(false);
+        server().expect(requestTo(SERVER_URL + "/items/1?commentsSize=20"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.ETAG, "\"v1\""));
+
+        clientRequest().addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        ResponseEntity<Object> response = client.get(1L, 1L, 20);
+
+        server().verify();
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+    }
+
+    @Test
+    public void lastWriteCookieBypassesFreshCachedResponse() {
+        ItemRequestClient client = requestClient();
+        server().expect(requestTo(SERVER_URL + "/requests/all?from=0&size=20"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        server().expect(requestTo(SERVER_URL + "/requests/all?from=0&size=20"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(REQUESTS, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v2\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        client.getRequests(0, 20);
+        clientRequest().setCookies(new Cookie(HeaderName.LAST_WRITE_COOKIE, "1700000000000"));
+        ResponseEntity<Object> afterWrite = client.getRequests(0, 20);
+        RequestContextHolder.resetRequestAttributes();
+        ResponseEntity<Object> later = client.getRequests(0, 20);
+
+        server().verify();
+        assertThat(body(afterWrite), equalTo(REQUESTS));
+        assertThat(body(later), equalTo(REQUESTS));
+    }
+
+    @Test
+    public void createdRequestEvictsCachedLists() {
+        ItemRequestClient client = requestClient();
+        server().expect(requestTo(SERVER_URL + "/requests/all?from=0&size=20"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+        server().expect(requestTo(SERVER_URL + "/requests"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server().expect(requestTo(SERVER_URL + "/requests/all?from=0&size=20"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(REQUESTS, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"v2\"")
+                        .header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+        client.getRequests(0, 20);
+        client.createRequest(1L, new ItemRequestCreateDto());
+        ResponseEntity<Object> afterCreate = client.getRequests(0, 20);
+
+        server().verify();
+        assertThat(body(afterCreate), equalTo(REQUESTS));
+    }
+
+    private ItemClient client(boolean passthrough) {
+        return new ItemClient(SERVER_URL, passthrough, new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new ServerResponseCache(DataSize.ofMegabytes(1)));
+    }
+
+    private ItemRequestClient requestClient() {
+        return new ItemRequestClient(SERVER_URL, false, new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new ServerResponseCache(DataSize.ofMegabytes(1)));
+    }
+
+    private static MockHttpServletRequest clientRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+
+    private MockRestServiceServer server() {
+        return customizer.getServer();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
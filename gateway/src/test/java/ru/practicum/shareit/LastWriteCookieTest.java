@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveServerClientConfig;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.user.ReactiveUserClient;
+import ru.practicum.shareit.user.ReactiveUserController;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The server keeps a client's reads on the primary after a write only if the gateway relays its last-write cookie
+ * both ways.
+ */
+public class LastWriteCookieTest {
+    private static final String SERVER_URL = "http://shareit-server";
+    private static final String LAST_WRITE = HeaderName.LAST_WRITE_COOKIE + "=1700000000000";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+
+    @ParameterizedTest(name = "passthrough={0}")
+    @ValueSource(booleans = {false, true})
+    public void setCookieFromServerIsRelayed(boolean passthrough) throws Exception {
+        MockMvc mvc = gateway(passthrough);
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}", MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.SET_COOKIE, LAST_WRITE + "; Path=/; Max-Age=5; HttpOnly"));
+
+        mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"user\",\"email\":\"user@mail.ru\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().value(HeaderName.LAST_WRITE_COOKIE, "1700000000000"))
+                .andExpect(cookie().maxAge(HeaderName.LAST_WRITE_COOKIE, 5));
+        customizer.getServer().verify();
+    }
+
+    @ParameterizedTest(name = "passthrough={0}")
+    @ValueSource(booleans = {false, true})
+    public void cookieFromClientIsForwarded(boolean passthrough) throws Exception {
+        MockMvc mvc = gateway(passthrough);
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(header(HttpHeaders.COOKIE, LAST_WRITE))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.COOKIE))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        mvc.perform(get("/users/1")
+                        .cookie(new Cookie(HeaderName.LAST_WRITE_COOKIE, "1700000000000"), new Cookie("session", "other")))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isOk());
+        customizer.getServer().verify();
+    }
+
+    @Test
+    public void reactiveCookieFromClientIsForwarded() {
+        List<String> forwarded = new ArrayList<>();
+        WebClient.Builder builder = WebClient.builder().exchangeFunction((ClientRequest request) -> {
+            forwarded.add(String.valueOf(request.headers().get(HttpHeaders.COOKIE)));
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+        ReactiveUserClient client = new ReactiveUserClient(SERVER_URL, builder, new ReactorClientHttpConnector());
+        WebTestClient webClient = WebTestClient.bindToController(new ReactiveUserController(client))
+                .webFilter(new ReactiveServerClientConfig().lastWriteCookieFilter())
+                .build();
+
+        webClient.get().uri("/users/1")
+                .cookie(HeaderName.LAST_WRITE_COOKIE, "1700000000000")
+                .exchange()
+                .expectStatus().isOk();
+        webClient.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(forwarded, contains("[" + LAST_WRITE + "]", "null"));
+    }
+
+    private MockMvc gateway(boolean passthrough) {
+        UserClient client = new UserClient(SERVER_URL, passthrough, new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new ServerResponseCache(DataSize.ofMegabytes(1)));
+        return MockMvcBuilders.standaloneSetup(new UserController(client)).build();
+    }
+}
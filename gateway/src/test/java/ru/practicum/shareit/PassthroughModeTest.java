@@ -0,0 +1,86 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The gateway must answer the same way whether server responses are buffered and re-encoded or passed through.
+ */
+public class PassthroughModeTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+
+    @ParameterizedTest(name = "passthrough={0}")
+    @ValueSource(booleans = {false, true})
+    public void successIsRelayed(boolean passthrough) throws Exception {
+        MockMvc mvc = gateway(passthrough);
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users"))
+                .andRespond(withSuccess("[{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}]",
+                        MediaType.APPLICATION_JSON));
+
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}]", true));
+        customizer.getServer().verify();
+    }
+
+    @ParameterizedTest(name = "passthrough={0}")
+    @ValueSource(booleans = {false, true})
+    public void clientErrorIsRelayed(boolean passthrough) throws Exception {
+        MockMvc mvc = gateway(passthrough);
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users/5"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"Пользователь не найден\"}"));
+
+        mvc.perform(get("/users/5"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"error\":\"Пользователь не найден\"}", true));
+        customizer.getServer().verify();
+    }
+
+    @ParameterizedTest(name = "passthrough={0}")
+    @ValueSource(booleans = {false, true})
+    public void noContentIsRelayed(boolean passthrough) throws Exception {
+        MockMvc mvc = gateway(passthrough);
+        customizer.getServer().expect(requestTo(SERVER_URL + "/users/5"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withNoContent());
+
+        mvc.perform(delete("/users/5"))
+                .andExpect(status().isNoContent())
+                .andExpect(content().string(""));
+        customizer.getServer().verify();
+    }
+
+    private MockMvc gateway(boolean passthrough) {
+        UserClient client = new UserClient(SERVER_URL, passthrough, new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new ServerResponseCache(DataSize.ofMegabytes(1)));
+        return MockMvcBuilders.standaloneSetup(new UserController(client)).build();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.booking.ReactiveBookingClient;
+import ru.practicum.shareit.booking.ReactiveBookingController;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@WebFluxTest(controllers = ReactiveBookingController.class, properties = "spring.main.web-application-type=reactive")
+public class ReactiveBookingControllerTest {
+    @MockBean
+    private ReactiveBookingClient bookingClient;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    public void invalidBodyIsBadRequest() {
+        client.post().uri("/bookings")
+                .header(HeaderName.USER_ID, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemId\":1,\"start\":\"2030-01-01T12:00:00\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").exists()
+                .jsonPath("$.path").doesNotExist();
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    public void unreadableBodyIsBadRequest() {
+        client.post().uri("/bookings")
+                .header(HeaderName.USER_ID, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemId\":")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").exists()
+                .jsonPath("$.path").doesNotExist();
+    }
+
+    @Test
+    public void unknownStateIsBadRequest() {
+        client.get().uri("/bookings?state=UNSUPPORTED")
+                .header(HeaderName.USER_ID, "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Unknown state: UNSUPPORTED")
+                .jsonPath("$.path").doesNotExist();
+    }
+
+    @Test
+    public void outOfRangeSizeIsBadRequest() {
+        client.get().uri("/bookings?size=0")
+                .header(HeaderName.USER_ID, "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").exists()
+                .jsonPath("$.path").doesNotExist();
+    }
+
+    @Test
+    public void missingUserHeaderIsBadRequest() {
+        client.get().uri("/bookings")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").exists()
+                .jsonPath("$.path").doesNotExist();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+
+@SpringBootTest(
+        properties = "spring.main.web-application-type=reactive",
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+public class ReactiveWebServerTest {
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Test
+    public void reactiveGatewayRunsOnNetty() {
+        assertThat(context.getWebServer(), instanceOf(NettyWebServer.class));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong ETags built from version fingerprints, so that a conditional GET can be answered without assembling the DTO.
+ */
+@UtilityClass
+public class EntityTag {
+    public static String of(String fingerprint) {
+        if (fingerprint == null)
+            return null;
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Sets the ETag on the response and tells whether the request's If-None-Match already matches it.
+     * A missing fingerprint means the entity was not found and is left for the regular lookup to report.
+     */
+    public static boolean checkNotModified(WebRequest request, String fingerprint) {
+        String etag = of(fingerprint);
+        return etag != null && request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Adds ETags to GET responses so the gateway can revalidate its cached copies and get an empty 304 back.
+ * Streaming responses are left alone, as the filter would buffer them whole.
+ * Single entities are sent with {@code no-cache}: the gateway does not see writes, so it must revalidate every time.
+ * The shared list of all requests tolerates a few seconds of staleness and is sent with a short {@code max-age}.
+ */
+@Configuration
+public class EtagFilterConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter(
+            @Value("${shareit.http.all-requests-max-age}") Duration allRequestsMaxAge) {
+        String revalidate = CacheControl.noCache().getHeaderValue();
+        String allRequests = CacheControl.maxAge(allRequestsMaxAge).getHeaderValue();
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !HttpMethod.GET.matches(request.getMethod()) || request.getRequestURI().endsWith("/stream");
+            }
+
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                response.setHeader(HttpHeaders.CACHE_CONTROL,
+                        request.getRequestURI().equals("/requests/all") ? allRequests : revalidate);
+                super.doFilterInternal(request, response, chain);
+            }
+        };
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the replicas listed in {@code shareit.datasource.replica-urls}.
+ * The routing source sits behind a lazy proxy, so the connection is picked once the transaction's read-only flag is set.
+ * Every write answers with a {@link HeaderName#LAST_WRITE_COOKIE} cookie holding its start time, and the gateway
+ * passes it back on the client's next requests, so reads stay on the primary for {@code replica-max-lag} whichever
+ * node serves them. Server clocks are assumed to be in sync to well within that lag.
+ */
+@Configuration
+@ConditionalOnProperty("shareit.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${shareit.datasource.replica-lag-query}") String lagQuery,
+            @Value("${shareit.datasource.replica-max-lag}") Duration maxLag) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i))
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> replicaRoutingFilter(ReplicaRoutingDataSource routing) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                Long userId = userId(request);
+                boolean read = HttpMethod.GET.matches(request.getMethod());
+                if (read) {
+                    ReplicaRoutingDataSource.beginRead(userId, lastWrite(request));
+                } else {
+                    response.addHeader(HttpHeaders.SET_COOKIE, lastWriteCookie(routing.getMaxLag()));
+                    if (userId != null)
+                        routing.recordWrite(userId);
+                }
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ReplicaRoutingDataSource.endRead();
+                    if (!read && userId != null)
+                        routing.recordWrite(userId);
+                }
+            }
+        };
+        return new FilterRegistrationBean<>(filter);
+    }
+
+    private static String lastWriteCookie(Duration maxAge) {
+        return ResponseCookie.from(HeaderName.LAST_WRITE_COOKIE, String.valueOf(Instant.now().toEpochMilli()))
+                .maxAge(maxAge)
+                .path("/")
+                .httpOnly(true)
+                .build()
+                .toString();
+    }
+
+    private static Instant lastWrite(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, HeaderName.LAST_WRITE_COOKIE);
+        try {
+            return cookie == null ? null : Instant.ofEpochMilli(Long.parseLong(cookie.getValue()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        try {
+            String userId = request.getHeader(HeaderName.USER_ID);
+            return userId == null ? null : Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions of GET requests to the replicas whose lag is within {@code maxLag}, round robin.
+ * Everything else goes to the primary, as do reads from a client whose last write, carried in the
+ * {@link HeaderName#LAST_WRITE_COOKIE} cookie, is less than {@code maxLag} old. The cookie holds a wall clock time,
+ * so any server node honours it. Users who wrote through this node are also remembered locally, for clients that
+ * drop cookies. A request keeps the replica it was first given, so the transaction computing an ETag and the one
+ * loading the body it describes never read replicas at different points of replay; between the two, the replica can
+ * only move forward, just as the primary can.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<ReadRequest> READ_REQUEST = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery, Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public static void beginRead(Long userId, @Nullable Instant lastWrite) {
+        READ_REQUEST.set(new ReadRequest(userId, lastWrite));
+    }
+
+    public static void endRead() {
+        READ_REQUEST.remove();
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void recordWrite(long userId) {
+        recentWriters.put(userId, System.nanoTime() + maxLag.toNanos());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica-check-interval}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            Duration lag = lagOf(name, replica);
+            if (lag != null && lag.compareTo(maxLag) <= 0)
+                healthy.add(name);
+            else if (healthyReplicas.contains(name))
+                log.warn("Replica {} {}, reading from the primary instead",
+                        name, lag == null ? "reports no lag" : "lags " + lag + " behind");
+        });
+        healthyReplicas = List.copyOf(healthy);
+
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now < 0);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReadRequest request = READ_REQUEST.get();
+        if (request == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY;
+        if (request.lastWrite != null && request.lastWrite.plus(maxLag).isAfter(Instant.now()))
+            return PRIMARY;
+        if (request.userId != null && isRecentWriter(request.userId))
+            return PRIMARY;
+
+        if (request.replica != null)
+            return request.replica;
+
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty())
+            return PRIMARY;
+        request.replica = healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+        return request.replica;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable)
+                closeable.close();
+        }
+    }
+
+    private boolean isRecentWriter(long userId) {
+        Long until = recentWriters.get(userId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private Duration lagOf(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet lag = statement.executeQuery(lagQuery)) {
+            if (!lag.next())
+                return null;
+            double seconds = lag.getDouble(1);
+            if (lag.wasNull())
+                return null;
+            return Duration.ofMillis(Math.round(seconds * 1000));
+        } catch (SQLException e) {
+            log.warn("Replica {} lag check failed: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class ReadRequest {
+        private final Long userId;
+        private final Instant lastWrite;
+        private String replica;
+
+        private ReadRequest(Long userId, Instant lastWrite) {
+            this.userId = userId;
+            this.lastWrite = lastWrite;
+        }
+    }
+}
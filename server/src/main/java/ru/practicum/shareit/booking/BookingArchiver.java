@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking.archive.horizon} ago into the archive partition.
+ * Current and future lookups filter on {@code archived = false} and never read archived rows. Overlap checks span both
+ * partitions, since the service accepts bookings that start in the past; PAST and ALL history is not pruned either.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final Duration horizon;
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.archive.horizon}") Duration horizon,
+                           @Value("${shareit.booking.archive.batch-size}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${shareit.booking.archive.cron}")
+    public int archive() {
+        LocalDateTime endedBefore = LocalDateTime.now().minus(horizon);
+        int archived = 0;
+        int moved;
+        do {
+            moved = bookingRepository.archiveEndedBefore(endedBefore, batchSize);
+            archived += moved;
+        } while (moved == batchSize);
+
+        log.info("Archived {} bookings ended before {}", archived, endedBefore);
+        return archived;
+    }
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.HeaderName;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.ValidateMarker;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
@@ -25,6 +34,14 @@ public class BookingController {
         return bookingService.create(userId, bookingCreateDto);
     }
 
+    @Validated(ValidateMarker.Create.class)
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBatch(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                   @RequestBody @Valid @Size(min = 1, max = 1000, groups = ValidateMarker.Create.class) List<BookingCreateDto> bookingCreateDtos) {
+        log.info("POST /bookings/batch {} bookings {}: {}", bookingCreateDtos.size(), HeaderName.USER_ID, userId);
+        return bookingService.createBatch(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto changeStatus(@RequestHeader(HeaderName.USER_ID) final long userId,
                                    @PathVariable Long bookingId,
@@ -35,22 +52,41 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingDto get(@RequestHeader(HeaderName.USER_ID) final long userId,
-                          @PathVariable Long bookingId) {
+                          @PathVariable Long bookingId,
+                          WebRequest request) {
         log.info("GET /bookings/{} {}: {}", bookingId, HeaderName.USER_ID, userId);
+        if (EntityTag.checkNotModified(request, bookingService.getVersionTag(userId, bookingId)))
+            return null;
         return bookingService.get(userId, bookingId);
     }
 
+    @Validated
     @GetMapping
-    public List<BookingDto> getByState(@RequestHeader(HeaderName.USER_ID) final long userId,
-                                       @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("GET /bookings?state={} {}: {}", state.name(), HeaderName.USER_ID, userId);
-        return bookingService.getBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getByState(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                                       @RequestParam(defaultValue = "ALL") BookingState state,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, userId);
+        return withNextCursor(bookingService.getBookings(userId, state, cursor, size), size);
     }
 
+    @Validated
     @GetMapping("/owner")
-    public List<BookingDto> getByItemsOwner(@RequestHeader(HeaderName.USER_ID) final long ownerId,
-                                            @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("GET /bookings/owner?state={} {}: {}", state.name(), HeaderName.USER_ID, ownerId);
-        return bookingService.getBookingItemOwner(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getByItemsOwner(@RequestHeader(HeaderName.USER_ID) final long ownerId,
+                                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /bookings/owner?state={}&cursor={}&size={} {}: {}", state.name(), cursor, size, HeaderName.USER_ID, ownerId);
+        return withNextCursor(bookingService.getBookingItemOwner(ownerId, state, cursor, size), size);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        if (bookings.size() < size)
+            return ResponseEntity.ok(bookings);
+
+        BookingDto last = bookings.getLast();
+        return ResponseEntity.ok()
+                .header(HeaderName.NEXT_CURSOR, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.model.Item;
@@ -39,6 +40,22 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingDto toBookingDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.id())
+                .start(booking.start())
+                .end(booking.end())
+                .item(ItemForBookingDto.builder()
+                        .id(booking.itemId())
+                        .name(booking.itemName())
+                        .build())
+                .booker(UserForBookingDto.builder()
+                        .id(booking.bookerId())
+                        .build())
+                .status(booking.status().name())
+                .build();
+    }
+
     public BookingForItemDto toBookingForItemDto(Booking booking) {
         return BookingForItemDto.builder()
                 .id(booking.getId())
@@ -46,6 +63,13 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingForItemDto toBookingForItemDto(Long bookingId, Long bookerId) {
+        return BookingForItemDto.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
+    }
+
     public Booking fromBookingCreateDto(BookingCreateDto bookingCreateDto) {
         return Booking.builder()
                 .start(bookingCreateDto.getStart())
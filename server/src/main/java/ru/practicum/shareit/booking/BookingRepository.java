@@ -1,121 +1,189 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
+            "join b.item i " +
             "where b.booker.id = ?1 " +
-            "order by b.start desc")
-    List<Booking> findAllByBookerId(Long bookerId);
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findAllByBookerId(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
+            "join b.item i " +
             "where b.booker.id = ?1 " +
             "and CURRENT_TIMESTAMP between b.start and b.end " +
-            "order by b.start desc")
-    List<Booking> findCurrentBooking(Long bookerId);
+            "and b.archived = false " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findCurrentBooking(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
+            "join b.item i " +
             "where b.booker.id = ?1 " +
             "and CURRENT_TIMESTAMP > b.end " +
-            "order by b.start desc")
-    List<Booking> findPastBooking(Long bookerId);
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPastBooking(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
+            "join b.item i " +
             "where b.booker.id = ?1 " +
             "and CURRENT_TIMESTAMP < b.start " +
-            "order by b.start desc")
-    List<Booking> findFutureBooking(Long bookerId);
+            "and b.archived = false " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findFutureBooking(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
+            "join b.item i " +
             "where b.booker.id = ?1 and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findBookingByStatus(Long bookerId, BookingStatus bookingStatus);
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findBookingByStatus(Long bookerId, BookingStatus bookingStatus, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
             "join b.item i " +
             "where i.owner.id = ?1 " +
-            "order by b.start desc")
-    List<Booking> findBookingByItemsOwner(Long ownerId);
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findBookingByItemsOwner(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
             "join b.item i " +
             "where i.owner.id = ?1 " +
             "and CURRENT_TIMESTAMP between b.start and b.end " +
-            "order by b.start desc")
-    List<Booking> findCurrentBookingByItemsOwner(Long ownerId);
+            "and b.archived = false " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findCurrentBookingByItemsOwner(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
             "join b.item i " +
             "where i.owner.id = ?1 " +
             "and CURRENT_TIMESTAMP > b.end " +
-            "order by b.start desc")
-    List<Booking> findPastBookingByItemsOwner(Long ownerId);
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPastBookingByItemsOwner(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
             "join b.item i " +
             "where i.owner.id = ?1 " +
             "and CURRENT_TIMESTAMP < b.start " +
-            "order by b.start desc")
-    List<Booking> findFutureBookingByItemsOwner(Long ownerId);
+            "and b.archived = false " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findFutureBookingByItemsOwner(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
             "from Booking b " +
             "join b.item i " +
             "where i.owner.id = ?1 and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findBookingByOwnerIdAndStatus(Long ownerId, BookingStatus bookingStatus);
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findBookingByOwnerIdAndStatus(Long ownerId, BookingStatus bookingStatus, LocalDateTime cursorStart, Long cursorId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingForItemView(b.id, b.booker.id) " +
             "from Booking b " +
             "where b.item.id = ?1 " +
             "and b.status = 'APPROVED' " +
             "and (CURRENT_TIMESTAMP > b.end " +
             "or CURRENT_TIMESTAMP between b.start and b.end) " +
-            "order by b.end desc")
-    List<Booking> findLastBookingByItemId(Long itemId);
+            "order by b.end desc, b.id desc")
+    List<BookingForItemView> findLastBookingByItemId(Long itemId, Pageable page);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.booking.dto.BookingForItemView(b.id, b.booker.id) " +
             "from Booking b " +
             "where b.item.id = ?1 " +
             "and b.status = 'APPROVED' " +
             "and CURRENT_TIMESTAMP < b.start " +
-            "order by b.start")
-    List<Booking> findNextBookingByItemId(Long itemId);
+            "and b.archived = false " +
+            "order by b.start, b.id")
+    List<BookingForItemView> findNextBookingByItemId(Long itemId, Pageable page);
+
+    @Query(value = "select exists (select 1 from booking b " +
+            "where b.booker_id = ?1 " +
+            "and (CURRENT_TIMESTAMP between b.start_date and b.end_date " +
+            "or CURRENT_TIMESTAMP > b.end_date) " +
+            "limit 1)",
+            nativeQuery = true)
+    boolean existsCurrentAndPastBookingByUserId(long userId);
+
+    @Query(value = "select exists (select 1 from booking b " +
+            "where b.item_id = ?1 " +
+            "and b.status in ('WAITING', 'APPROVED') " +
+            "and b.start_date < ?3 " +
+            "and b.end_date > ?2 " +
+            "limit 1)",
+            nativeQuery = true)
+    boolean existsOverlappingBooking(long itemId, LocalDateTime start, LocalDateTime end);
 
     @Query("select b " +
             "from Booking b " +
-            "where b.item.id in :items " +
-            "and b.status = 'APPROVED' " +
-            "and (CURRENT_TIMESTAMP > b.end " +
-            "or CURRENT_TIMESTAMP between b.start and b.end) " +
-            "order by b.end desc")
-    List<Booking> findLastBookingByItemIn(List<Long> items);
+            "where b.item.id in ?1 " +
+            "and b.status in ('WAITING', 'APPROVED') " +
+            "and b.start < ?3 " +
+            "and b.end > ?2")
+    List<Booking> findOverlappingBookings(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
 
     @Query("select b " +
             "from Booking b " +
-            "where b.item.id in :items " +
-            "and b.status = 'APPROVED' " +
-            "and CURRENT_TIMESTAMP < b.start " +
+            "where b.item.id = ?1 " +
+            "and b.status in ('WAITING', 'APPROVED') " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
             "order by b.start")
-    List<Booking> findNextBookingByItemIn(List<Long> items);
-
-    @Query("select case when count(b) > 0 then true else false end  " +
-            "from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and (CURRENT_TIMESTAMP between b.start and b.end " +
-            "or CURRENT_TIMESTAMP > b.end)")
-    Boolean existsCurrentAndPastBookingByUserId(Long ownerId);
+    List<Booking> findOverlappingBookingsByItemId(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = ?2, b.version = b.version + 1 " +
+            "where b.id = ?1 " +
+            "and b.status = 'WAITING'")
+    int updateWaitingStatus(Long bookingId, BookingStatus status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking"))
+    @Query(value = "update booking set archived = true " +
+            "where archived = false " +
+            "and id in (select b.id from booking b " +
+            "where b.archived = false " +
+            "and b.end_date < ?1 " +
+            "limit ?2)",
+            nativeQuery = true)
+    int archiveEndedBefore(LocalDateTime endedBefore, int limit);
+
+    @Query(value = "select concat_ws(':', b.version, i.version) " +
+            "from booking b " +
+            "join items i on i.id = b.item_id " +
+            "where b.id = ?1 " +
+            "and (b.booker_id = ?2 or i.user_id = ?2)",
+            nativeQuery = true)
+    String findVersionTag(long bookingId, long userId);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
@@ -8,11 +9,15 @@ import java.util.List;
 public interface BookingService {
     BookingDto create(Long userId, BookingCreateDto bookingCreateDto);
 
+    List<BookingBatchResultDto> createBatch(Long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingDto changeStatus(Long userId, Long bookingId, Boolean approved);
 
     BookingDto get(Long userId, Long bookingId);
 
-    List<BookingDto> getBookings(Long userId, BookingState bookingState);
+    String getVersionTag(Long userId, Long bookingId);
+
+    List<BookingDto> getBookings(Long userId, BookingState bookingState, String cursor, int size);
 
-    List<BookingDto> getBookingItemOwner(Long ownerId, BookingState bookingState);
+    List<BookingDto> getBookingItemOwner(Long ownerId, BookingState bookingState, String cursor, int size);
 }
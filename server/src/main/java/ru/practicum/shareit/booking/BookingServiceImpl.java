@@ -1,24 +1,42 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.KeysetCursor;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.exception.AlreadyApprovedException;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.exception.DateBookingException;
 import ru.practicum.shareit.exception.ItemUnvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
@@ -26,34 +44,74 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional
     public BookingDto create(Long userId, BookingCreateDto bookingCreateDto) {
         validateExistsUser(userId);
-        validateExistsItem(bookingCreateDto.getItemId());
+        Item item = itemRepository.findById(bookingCreateDto.getItemId()).orElseThrow(
+                () -> new NotFoundException("Вещи с ID " + bookingCreateDto.getItemId() + " не найдено")
+        );
 
-        if (!bookingCreateDto.getEnd().isAfter(bookingCreateDto.getStart()))
-            throw new DateBookingException("Некорректные даты бронированя");
+        validateBooking(userId, item, bookingCreateDto);
+        if (bookingRepository.existsOverlappingBooking(
+                item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd()))
+            throw overlapException(item.getId());
 
-        Item item = itemRepository.findById(bookingCreateDto.getItemId()).get();
-        if (!item.getAvailable())
-            throw new ItemUnvailableException("Предмет с ID " + item.getId() + " не доступен");
+        return BookingMapper.toBookingDto(
+                bookingRepository.save(newBooking(bookingCreateDto, userRepository.getReferenceById(userId), item))
+        );
+    }
 
-        if (item.getOwner().getId().equals(userId))
-            throw new NotFoundException("Пользователь с ID "
-                    + userId
-                    + " является владельцем вещи с ID "
-                    + item.getId());
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBatch(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        validateExistsUser(userId);
+        User booker = userRepository.getReferenceById(userId);
 
-        Booking newBooking = BookingMapper.fromBookingCreateDto(bookingCreateDto);
-        newBooking.setBooker(userRepository.findById(userId).get());
-        newBooking.setItem(itemRepository.findById(bookingCreateDto.getItemId()).get());
-        newBooking.setStatus(BookingStatus.WAITING);
+        Map<Long, Item> items = itemRepository.findAllById(bookingCreateDtos.stream()
+                        .map(BookingCreateDto::getItemId)
+                        .distinct()
+                        .toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> itemBookings = findBookedIntervals(items.keySet(), bookingCreateDtos);
 
-        return BookingMapper.toBookingDto(
-                bookingRepository.save(newBooking)
-        );
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingCreateDtos.size());
+        List<Booking> newBookings = new ArrayList<>(bookingCreateDtos.size());
+        for (BookingCreateDto bookingCreateDto : bookingCreateDtos) {
+            try {
+                Item item = items.get(bookingCreateDto.getItemId());
+                if (item == null)
+                    throw new NotFoundException("Вещи с ID " + bookingCreateDto.getItemId() + " не найдено");
+                validateBooking(userId, item, bookingCreateDto);
+                List<Booking> bookedIntervals = itemBookings.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (bookedIntervals.stream().anyMatch(b -> overlaps(b, bookingCreateDto)))
+                    throw overlapException(item.getId());
+                Booking booking = newBooking(bookingCreateDto, booker, item);
+                bookedIntervals.add(booking);
+                newBookings.add(booking);
+                results.add(null);
+            } catch (NotFoundException | DateBookingException | ItemUnvailableException
+                     | BookingOverlapException e) {
+                newBookings.add(null);
+                results.add(BookingBatchResultDto.builder()
+                        .exception(e.getClass().getName())
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+
+        bookingRepository.saveAll(newBookings.stream().filter(Objects::nonNull).toList());
+
+        for (int i = 0; i < newBookings.size(); i++) {
+            if (newBookings.get(i) != null)
+                results.set(i, BookingBatchResultDto.builder()
+                        .booking(BookingMapper.toBookingDto(newBookings.get(i)))
+                        .build());
+        }
+        return results;
     }
 
     @Override
+    @Transactional
     public BookingDto changeStatus(Long userId, Long bookingId, Boolean approved) {
         validateExistsUser(userId);
 
@@ -69,13 +127,13 @@ public class BookingServiceImpl implements BookingService {
         if (dbBooking.getStatus().equals(BookingStatus.APPROVED))
             throw new AlreadyApprovedException("Бронирование с ID " + bookingId + " уже подтвержденно");
 
-        if (approved) {
-            dbBooking.setStatus(BookingStatus.APPROVED);
-        } else {
-            dbBooking.setStatus(BookingStatus.REJECTED);
-        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        BookingDto bookingDto = BookingMapper.toBookingDto(dbBooking);
+        if (bookingRepository.updateWaitingStatus(bookingId, status) == 0)
+            throw new BookingStatusConflictException("Бронирование с ID " + bookingId + " уже рассмотрено");
 
-        return BookingMapper.toBookingDto(bookingRepository.save(dbBooking));
+        bookingDto.setStatus(status.name());
+        return bookingDto;
     }
 
     @Override
@@ -94,83 +152,135 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getBookings(Long userId, BookingState bookingState) {
+    public String getVersionTag(Long userId, Long bookingId) {
+        return bookingRepository.findVersionTag(bookingId, userId);
+    }
+
+    @Override
+    public List<BookingDto> getBookings(Long userId, BookingState bookingState, String cursor, int size) {
         validateExistsUser(userId);
 
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime start = after.getTimestamp();
+        Long id = after.getId();
+        Pageable page = PageRequest.ofSize(size);
+
+        List<BookingView> bookings;
         switch (bookingState) {
             case ALL:
-                return bookingRepository.findAllByBookerId(userId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findAllByBookerId(userId, start, id, page);
+                break;
             case CURRENT:
-                return bookingRepository.findCurrentBooking(userId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findCurrentBooking(userId, start, id, page);
+                break;
             case PAST:
-                return bookingRepository.findPastBooking(userId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findPastBooking(userId, start, id, page);
+                break;
             case FUTURE:
-                return bookingRepository.findFutureBooking(userId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findFutureBooking(userId, start, id, page);
+                break;
             case WAITING:
-                return bookingRepository.findBookingByStatus(userId, BookingStatus.WAITING).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findBookingByStatus(userId, BookingStatus.WAITING, start, id, page);
+                break;
             case REJECTED:
-                return bookingRepository.findBookingByStatus(userId, BookingStatus.REJECTED).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findBookingByStatus(userId, BookingStatus.REJECTED, start, id, page);
+                break;
             default:
                 return Collections.emptyList();
         }
+
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
     }
 
     @Override
-    public List<BookingDto> getBookingItemOwner(Long ownerId, BookingState bookingState) {
+    public List<BookingDto> getBookingItemOwner(Long ownerId, BookingState bookingState, String cursor, int size) {
         validateExistsUser(ownerId);
 
-        if (itemRepository.countByOwnerId(ownerId) == 0)
+        if (!itemRepository.existsItemByOwnerId(ownerId))
             throw new NotFoundException("У пользователя " + ownerId + " нет вещей");
 
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime start = after.getTimestamp();
+        Long id = after.getId();
+        Pageable page = PageRequest.ofSize(size);
+
+        List<BookingView> bookings;
         switch (bookingState) {
             case ALL:
-                return bookingRepository.findBookingByItemsOwner(ownerId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findBookingByItemsOwner(ownerId, start, id, page);
+                break;
             case CURRENT:
-                return bookingRepository.findCurrentBookingByItemsOwner(ownerId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findCurrentBookingByItemsOwner(ownerId, start, id, page);
+                break;
             case PAST:
-                return bookingRepository.findPastBookingByItemsOwner(ownerId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findPastBookingByItemsOwner(ownerId, start, id, page);
+                break;
             case FUTURE:
-                return bookingRepository.findFutureBookingByItemsOwner(ownerId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findFutureBookingByItemsOwner(ownerId, start, id, page);
+                break;
             case WAITING:
-                return bookingRepository.findBookingByOwnerIdAndStatus(ownerId, BookingStatus.WAITING).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findBookingByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, start, id, page);
+                break;
             case REJECTED:
-                return bookingRepository.findBookingByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                bookings = bookingRepository.findBookingByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, start, id, page);
+                break;
             default:
                 return Collections.emptyList();
         }
+
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
     }
 
-    private void validateExistsUser(Long userId) {
-        if (userRepository.findById(userId).isEmpty())
-            throw new NotOwnerException("Пользователя с ID " + userId + " не найдено");
+    private void validateBooking(Long userId, Item item, BookingCreateDto bookingCreateDto) {
+        if (!bookingCreateDto.getEnd().isAfter(bookingCreateDto.getStart()))
+            throw new DateBookingException("Некорректные даты бронированя");
+
+        if (!item.getAvailable())
+            throw new ItemUnvailableException("Предмет с ID " + item.getId() + " не доступен");
+
+        if (item.getOwner().getId().equals(userId))
+            throw new NotFoundException("Пользователь с ID "
+                    + userId
+                    + " является владельцем вещи с ID "
+                    + item.getId());
+    }
+
+    private Map<Long, List<Booking>> findBookedIntervals(Collection<Long> itemIds,
+                                                         List<BookingCreateDto> bookingCreateDtos) {
+        if (itemIds.isEmpty())
+            return new HashMap<>();
+
+        return bookingRepository.findOverlappingBookings(
+                        itemIds,
+                        bookingCreateDtos.stream().map(BookingCreateDto::getStart).min(Comparator.naturalOrder()).get(),
+                        bookingCreateDtos.stream().map(BookingCreateDto::getEnd).max(Comparator.naturalOrder()).get())
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId(), HashMap::new, Collectors.toList()));
+    }
+
+    private static boolean overlaps(Booking booking, BookingCreateDto bookingCreateDto) {
+        return booking.getStart().isBefore(bookingCreateDto.getEnd())
+                && booking.getEnd().isAfter(bookingCreateDto.getStart());
+    }
+
+    private static BookingOverlapException overlapException(Long itemId) {
+        return new BookingOverlapException("Вещь с ID " + itemId + " уже забронирована на эти даты");
     }
 
-    private void validateExistsItem(Long itemId) {
-        if (itemRepository.findById(itemId).isEmpty())
-            throw new NotFoundException("Вещи с ID " + itemId + " не найдено");
+    private Booking newBooking(BookingCreateDto bookingCreateDto, User booker, Item item) {
+        Booking newBooking = BookingMapper.fromBookingCreateDto(bookingCreateDto);
+        newBooking.setBooker(booker);
+        newBooking.setItem(item);
+        newBooking.setStatus(BookingStatus.WAITING);
+        return newBooking;
+    }
+
+    private void validateExistsUser(Long userId) {
+        if (!userRepository.existsUserById(userId))
+            throw new NotOwnerException("Пользователя с ID " + userId + " не найдено");
     }
 }
\ No newline at end of file
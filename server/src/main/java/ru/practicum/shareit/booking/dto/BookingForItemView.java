@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.dto;
+
+public record BookingForItemView(
+        Long id,
+        Long bookerId
+) {
+}
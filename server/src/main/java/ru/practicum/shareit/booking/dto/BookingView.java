@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingView(
+        Long id,
+        LocalDateTime start,
+        LocalDateTime end,
+        BookingStatus status,
+        Long itemId,
+        String itemName,
+        Long bookerId
+) {
+}
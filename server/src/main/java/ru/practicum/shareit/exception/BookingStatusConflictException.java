@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingStatusConflictException extends RuntimeException {
+    public BookingStatusConflictException(String msg) {
+        super(msg);
+    }
+}
@@ -3,19 +3,26 @@ package ru.practicum.shareit.exception;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice(annotations = RestController.class)
 public class ResponseExceptionHandler {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "booking_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @ExceptionHandler(NotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     protected Map<String, String> notFoundExceptionHandler(NotFoundException e) {
@@ -30,13 +37,37 @@ public class ResponseExceptionHandler {
         return Map.of("exception", e.getClass().getName(), "error", e.getMessage());
     }
 
-    @ExceptionHandler({DuplicateEmailException.class, DataIntegrityViolationException.class})
+    @ExceptionHandler({
+            DuplicateEmailException.class,
+            BookingOverlapException.class,
+            BookingStatusConflictException.class,
+            OptimisticLockingFailureException.class
+    })
     @ResponseStatus(HttpStatus.CONFLICT)
     protected Map<String, String> duplicateEmailExceptionHandler(Exception e) {
         log.error("Status 409 Conflict {}\n{}", e.getMessage(), e.getStackTrace());
         return Map.of("exception", e.getClass().getName(), "error", e.getMessage());
     }
 
+    /**
+     * A concurrent create that loses to the {@code booking_no_overlap} exclusion constraint is the same conflict as
+     * one caught by the overlap check in the service. Any other integrity violation is a server error, and the SQL
+     * in its message is not sent to the client.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    protected ResponseEntity<Map<String, String>> dataIntegrityViolationHandler(DataIntegrityViolationException e) {
+        if (isBookingOverlap(e)) {
+            log.error("Status 409 Conflict {}\n{}", e.getMessage(), e.getStackTrace());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "exception", BookingOverlapException.class.getName(),
+                    "error", "Вещь уже забронирована на эти даты"));
+        }
+        log.error("Status 500 Internal Server Error {}\n{}", e.getMessage(), e.getStackTrace());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "exception", e.getClass().getName(),
+                "error", "Нарушена целостность данных"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected Map<String, String> validationException(MethodArgumentNotValidException e) {
@@ -66,7 +97,9 @@ public class ResponseExceptionHandler {
             DateBookingException.class,
             AlreadyApprovedException.class,
             NotBookerException.class,
+            InvalidCursorException.class,
             ConstraintViolationException.class,
+            HandlerMethodValidationException.class,
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected Map<String, String> notBookerExceptionHandler(Exception e) {
@@ -80,4 +113,17 @@ public class ResponseExceptionHandler {
         log.error("Status 500 Internal Server Error {}\n{}", e.getMessage(), e.getStackTrace());
         return Map.of("exception", e.getClass().toString(), "error", e.getMessage());
     }
+
+    private static boolean isBookingOverlap(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && BOOKING_OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName()))
+                return true;
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                    && String.valueOf(sqlException.getMessage()).contains(BOOKING_OVERLAP_CONSTRAINT))
+                return true;
+        }
+        return false;
+    }
 }
@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
 
 @UtilityClass
 public class CommentMapper {
@@ -16,6 +17,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public CommentResponseDto toCommentResponseDto(CommentView comment) {
+        return CommentResponseDto.builder()
+                .id(comment.id())
+                .text(comment.text())
+                .authorName(comment.authorName())
+                .created(comment.created())
+                .build();
+    }
+
     public Comment toComment(CommentCreateDto commentCreateDto) {
         return Comment.builder()
                 .text(commentCreateDto.getText())
@@ -1,16 +1,33 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItemId(Long itemId);
 
-    @Query("select c " +
+    @Query("select new ru.practicum.shareit.item.dto.CommentView(c.id, c.item.id, c.text, a.name, c.created) " +
             "from Comment c " +
-            "where c.item.id in :item")
-    List<Comment> findByItemsIdIn(List<Long> item);
+            "join c.author a " +
+            "where c.item.id = ?1 " +
+            "and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findViewsByItemId(Long itemId, LocalDateTime cursorCreated, Long cursorId, Pageable page);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentView(c.id, c.itemId, c.text, c.authorName, c.created) " +
+            "from (select c.id as id, c.item.id as itemId, c.text as text, a.name as authorName, c.created as created, " +
+            "row_number() over (partition by c.item.id order by c.created desc, c.id desc) as rn " +
+            "from Comment c " +
+            "join c.author a " +
+            "where c.item.id in ?1) c " +
+            "where c.rn <= ?2 " +
+            "order by c.itemId, c.created desc, c.id desc")
+    List<CommentView> findLatestViewsByItemIdIn(Collection<Long> itemIds, int perItem);
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Postgres search over the {@code search_vector} GIN index, falling back to trigram indexes for substring matches.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext", matchIfMissing = true)
+public class FullTextItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.searchAvailable(text, page);
+    }
+
+    @Override
+    public Stream<Item> stream(String text) {
+        return itemRepository.streamAvailable(text).peek(entityManager::detach);
+    }
+}
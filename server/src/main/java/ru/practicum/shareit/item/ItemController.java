@@ -1,16 +1,32 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.HeaderName;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.ValidateMarker;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,6 +36,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemCreateDto create(@RequestHeader(HeaderName.USER_ID) final long userId,
@@ -36,25 +53,70 @@ public class ItemController {
         return itemService.update(userId, itemId, item);
     }
 
+    @Validated
     @GetMapping("/{itemId}")
-    public ItemResponseDto get(@RequestHeader(HeaderName.USER_ID) final long userId,
-                               @PathVariable Long itemId) {
-        log.info("GET /items/{} {}: {}", itemId, HeaderName.USER_ID, userId);
-        return itemService.get(itemId, userId);
+    public ResponseEntity<ItemResponseDto> get(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                               @PathVariable Long itemId,
+                                               @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize,
+                                               WebRequest request) {
+        log.info("GET /items/{}?commentsSize={} {}: {}", itemId, commentsSize, HeaderName.USER_ID, userId);
+        if (EntityTag.checkNotModified(request, itemService.getVersionTag(itemId, userId)))
+            return null;
+        ItemResponseDto item = itemService.get(itemId, userId, commentsSize);
+        return withNextCursor(item.getComments(), commentsSize).body(item);
     }
 
+    @Validated
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentResponseDto>> getComments(@PathVariable Long itemId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("GET /items/{}/comments?cursor={}&size={}", itemId, cursor, size);
+        List<CommentResponseDto> comments = itemService.getComments(itemId, cursor, size);
+        return withNextCursor(comments, size).body(comments);
+    }
+
+    @Validated
     @GetMapping
-    public List<ItemResponseDto> getUserItems(@RequestHeader(HeaderName.USER_ID) final long userId) {
-        log.info("GET /items {}: {}", HeaderName.USER_ID, userId);
-        return itemService.getUserItems(userId);
+    public List<ItemResponseDto> getUserItems(@RequestHeader(HeaderName.USER_ID) final long userId,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int commentsSize,
+                                              WebRequest request) {
+        log.info("GET /items?commentsSize={} {}: {}", commentsSize, HeaderName.USER_ID, userId);
+        if (EntityTag.checkNotModified(request, itemService.getUserItemsVersionTag(userId)))
+            return null;
+        return itemService.getUserItems(userId, commentsSize);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindowDto> getAvailability(@PathVariable Long itemId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/{}/availability?from={}&to={}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
     }
 
+    @Validated
     @GetMapping("/search")
-    public List<ItemCreateDto> searchByName(@RequestParam String text) {
+    public List<ItemCreateDto> searchByName(@RequestParam String text,
+                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                            @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
         if (text.isBlank())
             return Collections.emptyList();
-        log.info("GET /items/search?text={}", text);
-        return itemService.searchItem(text);
+        log.info("GET /items/search?text={}&from={}&size={}", text, from, size);
+        return itemService.searchItem(text, from, size);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchByName(@RequestParam String text) {
+        log.info("GET /items/search/stream?text={}", text);
+        StreamingResponseBody body = out -> {
+            if (text.isBlank())
+                return;
+            itemService.streamSearchItem(text, item -> writeLine(out, item));
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -64,4 +126,22 @@ public class ItemController {
         log.info("POST /items/{}/comment {} {}: {}", itemId, comment, HeaderName.USER_ID, userId);
         return itemService.addComment(userId, itemId, comment);
     }
+
+    private ResponseEntity.BodyBuilder withNextCursor(List<CommentResponseDto> comments, int size) {
+        if (comments.size() < size)
+            return ResponseEntity.ok();
+
+        CommentResponseDto last = comments.getLast();
+        return ResponseEntity.ok()
+                .header(HeaderName.NEXT_CURSOR, new KeysetCursor(last.getCreated(), last.getId()).encode());
+    }
+
+    private void writeLine(OutputStream out, ItemCreateDto item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -5,6 +5,8 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.dto.RequestItemView;
 
 @UtilityClass
 public class ItemMapper {
@@ -29,6 +31,17 @@ public class ItemMapper {
                 .build();
     }
 
+    public ItemResponseDto toItemResponseDto(ItemWithBookingsDto item) {
+        return ItemResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(null)
+                .nextBooking(null)
+                .build();
+    }
+
     public Item toItem(ItemCreateDto itemCreateDto) {
         return Item.builder()
                 .name(itemCreateDto.getName())
@@ -37,11 +50,11 @@ public class ItemMapper {
                 .build();
     }
 
-    public ItemForRequestDto toRequestItemDto(Item item) {
+    public ItemForRequestDto toRequestItemDto(RequestItemView item) {
         return ItemForRequestDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .ownerId(item.getOwner().getId())
+                .id(item.id())
+                .name(item.name())
+                .ownerId(item.ownerId())
                 .build();
     }
 }
@@ -1,24 +1,133 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.dto.RequestItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(long userId);
 
-    long countByOwnerId(long ownerId);
+    @Query(value = "select exists (select 1 from items i where i.id = ?1 limit 1)", nativeQuery = true)
+    boolean existsItemById(long itemId);
 
+    @Query(value = "select exists (select 1 from items i where i.user_id = ?1 limit 1)", nativeQuery = true)
+    boolean existsItemByOwnerId(long ownerId);
+
+    @Query(value = "select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "lb.id as lastBookingId, lb.booker_id as lastBookerId, " +
+            "nb.id as nextBookingId, nb.booker_id as nextBookerId " +
+            "from items i " +
+            "left join (select b.id, b.item_id, b.booker_id, " +
+            "row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from booking b " +
+            "join items oi on oi.id = b.item_id " +
+            "where oi.user_id = ?1 " +
+            "and b.status = 'APPROVED' " +
+            "and b.start_date <= CURRENT_TIMESTAMP) lb on lb.item_id = i.id and lb.rn = 1 " +
+            "left join (select b.id, b.item_id, b.booker_id, " +
+            "row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from booking b " +
+            "join items oi on oi.id = b.item_id " +
+            "where oi.user_id = ?1 " +
+            "and b.status = 'APPROVED' " +
+            "and b.archived = false " +
+            "and b.start_date > CURRENT_TIMESTAMP) nb on nb.item_id = i.id and nb.rn = 1 " +
+            "where i.user_id = ?1 " +
+            "order by i.id",
+            nativeQuery = true)
+    List<ItemWithBookingsDto> findAllWithBookingsByOwnerId(long ownerId);
+
+    @Query("select i " +
+            "from Item as i " +
+            "where (lower(i.name) like lower(concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
+            "and i.available = true " +
+            "order by case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Item> findByNameOrDescriptionLike(String text, Pageable page);
+
+    @Query(value = "select i.* " +
+            "from items i " +
+            "where i.available " +
+            "and (i.search_vector @@ plainto_tsquery('simple', ?1) " +
+            "or lower(i.name) like lower(concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('simple', ?1)) desc, " +
+            "case when lower(i.name) like lower(concat('%', ?1, '%')) then 0 else 1 end, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailable(String text, Pageable page);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("select i " +
             "from Item as i " +
             "where (lower(i.name) like lower(concat('%', ?1, '%')) " +
             "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
-            "and i.available = true")
-    List<Item> findByNameOrDescriptionLike(String text);
+            "and i.available = true " +
+            "order by i.id")
+    Stream<Item> streamByNameOrDescriptionLike(String text);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "select i.* " +
+            "from items i " +
+            "where i.available " +
+            "and (i.search_vector @@ plainto_tsquery('simple', ?1) " +
+            "or lower(i.name) like lower(concat('%', ?1, '%')) " +
+            "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
+            "order by i.id",
+            nativeQuery = true)
+    Stream<Item> streamAvailable(String text);
+
+    @Query("select new ru.practicum.shareit.item.dto.RequestItemView(i.id, i.name, i.owner.id, i.request.id) " +
+            "from Item i " +
+            "where i.request.id in ?1 " +
+            "order by i.id")
+    List<RequestItemView> findAllByRequestIdIn(Collection<Long> requestsId);
 
-    List<Item> findAllByRequestIdIn(List<Long> requestsId);
+    @Query(value = "select concat_ws(':', i.version, " +
+            "(select concat_ws(':', count(*), sum(c.id), sum(c.version), sum(u.version)) " +
+            "from comments c " +
+            "join users u on u.id = c.author_id " +
+            "where c.item_id = i.id), " +
+            "case when i.user_id = ?2 then " +
+            "(select concat_ws(':', count(*), sum(b.id), sum(b.version), " +
+            "sum(case when b.start_date <= CURRENT_TIMESTAMP then 1 else 0 end)) " +
+            "from booking b " +
+            "where b.item_id = i.id " +
+            "and b.status = 'APPROVED') end) " +
+            "from items i " +
+            "where i.id = ?1",
+            nativeQuery = true)
+    String findVersionTag(long itemId, long userId);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @Query(value = "select concat_ws(':', count(*), sum(i.id), sum(i.version), " +
+            "(select concat_ws(':', count(*), sum(c.id), sum(c.version), sum(u.version)) " +
+            "from comments c " +
+            "join items ci on ci.id = c.item_id " +
+            "join users u on u.id = c.author_id " +
+            "where ci.user_id = ?1), " +
+            "(select concat_ws(':', count(*), sum(b.id), sum(b.version), " +
+            "sum(case when b.start_date <= CURRENT_TIMESTAMP then 1 else 0 end)) " +
+            "from booking b " +
+            "join items bi on bi.id = b.item_id " +
+            "where bi.user_id = ?1 " +
+            "and b.status = 'APPROVED')) " +
+            "from items i " +
+            "where i.user_id = ?1",
+            nativeQuery = true)
+    String findOwnerVersionTag(long ownerId);
 }
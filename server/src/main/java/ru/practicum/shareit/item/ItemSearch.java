@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ItemSearch {
+    List<Item> search(String text, Pageable page);
+
+    Stream<Item> stream(String text);
+}
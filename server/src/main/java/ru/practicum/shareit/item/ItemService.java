@@ -1,22 +1,35 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemCreateDto create(Long userId, ItemCreateDto itemCreateDto);
 
     ItemCreateDto update(Long userId, Long itemId, ItemCreateDto itemCreateDto);
 
-    ItemResponseDto get(Long itemId, Long userId);
+    ItemResponseDto get(Long itemId, Long userId, int commentsSize);
 
-    List<ItemResponseDto> getUserItems(Long userId);
+    List<CommentResponseDto> getComments(Long itemId, String cursor, int size);
 
-    List<ItemCreateDto> searchItem(String text);
+    List<ItemResponseDto> getUserItems(Long userId, int commentsSize);
+
+    String getVersionTag(Long itemId, Long userId);
+
+    String getUserItemsVersionTag(Long userId);
+
+    List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemCreateDto> searchItem(String text, int from, int size);
+
+    void streamSearchItem(String text, Consumer<ItemCreateDto> action);
 
     CommentResponseDto addComment(Long userId, Long itemId, CommentCreateDto commentCreateDto);
 }
@@ -2,10 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.KeysetCursor;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.DateBookingException;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
@@ -16,22 +21,30 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
@@ -39,16 +52,15 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
 
     @Override
+    @Transactional
     public ItemCreateDto create(Long userId, ItemCreateDto itemCreateDto) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
-        );
-
+        validateExistsUser(userId);
 
         Item createItem = ItemMapper.toItem(itemCreateDto);
-        createItem.setOwner(user);
+        createItem.setOwner(userRepository.getReferenceById(userId));
         if (itemCreateDto.getRequestId() != null) {
             Optional<ItemRequest> itemRequest = itemRequestRepository.findById(itemCreateDto.getRequestId());
             log.info("request find: {}", itemRequest);
@@ -60,10 +72,9 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public ItemCreateDto update(Long userId, Long itemId, ItemCreateDto itemCreateDto) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
-        );
+        validateExistsUser(userId);
 
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещи с ID " + itemId + " не найдено")
@@ -87,10 +98,8 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public ItemResponseDto get(Long itemId, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
-        );
+    public ItemResponseDto get(Long itemId, Long userId, int commentsSize) {
+        validateExistsUser(userId);
 
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new NotFoundException("Вещи с ID " + itemId + " не найдено")
@@ -98,9 +107,8 @@ public class ItemServiceImpl implements ItemService {
 
         ItemResponseDto itemResponseDto = ItemMapper.toItemResponseDto(item);
 
-        itemResponseDto.setComments(commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::toCommentResponseDto)
-                .collect(Collectors.toList()));
+        itemResponseDto.setComments(findComments(itemId, KeysetCursor.FIRST, commentsSize));
+        itemResponseDto.setNextCommentsCursor(nextCommentsCursor(itemResponseDto.getComments(), commentsSize));
 
         if (!item.getOwner().getId().equals(userId))
             return itemResponseDto;
@@ -112,72 +120,110 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemResponseDto> getUserItems(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
-        );
+    public List<CommentResponseDto> getComments(Long itemId, String cursor, int size) {
+        if (!itemRepository.existsItemById(itemId))
+            throw new NotFoundException("Вещи с ID " + itemId + " не найдено");
 
-        List<Item> userItems = itemRepository.findAllByOwnerId(userId);
-        List<Long> itemsId = userItems.stream().map(Item::getId).toList();
+        return findComments(itemId, KeysetCursor.decode(cursor), size);
+    }
 
-        Map<ItemResponseDto, List<Comment>> itemComments = commentRepository.findByItemsIdIn(itemsId).stream()
-                .collect(groupingBy(i -> ItemMapper.toItemResponseDto(i.getItem()), toList()));
+    @Override
+    public List<ItemResponseDto> getUserItems(Long userId, int commentsSize) {
+        validateExistsUser(userId);
 
-        Map<ItemResponseDto, List<Booking>> lastBookingForItems = bookingRepository.findLastBookingByItemIn(itemsId).stream()
-                .collect(groupingBy(i -> ItemMapper.toItemResponseDto(i.getItem()), toList()));
+        List<ItemWithBookingsDto> userItems = itemRepository.findAllWithBookingsByOwnerId(userId);
+        List<Long> itemsId = userItems.stream().map(ItemWithBookingsDto::getId).toList();
 
-        Map<ItemResponseDto, List<Booking>> nextBookingForItems = bookingRepository.findNextBookingByItemIn(itemsId).stream()
-                .collect(groupingBy(i -> ItemMapper.toItemResponseDto(i.getItem()), toList()));
+        Map<Long, List<CommentResponseDto>> itemComments = commentRepository.findLatestViewsByItemIdIn(itemsId, commentsSize).stream()
+                .collect(groupingBy(CommentView::itemId, mapping(CommentMapper::toCommentResponseDto, toList())));
 
         return userItems.stream()
-                .map(ItemMapper::toItemResponseDto)
-                .peek(i -> {
-                    List<Comment> comments = itemComments.getOrDefault(i, List.of());
-                    List<Booking> lastBooking = lastBookingForItems.get(i);
-                    List<Booking> nextBooking = nextBookingForItems.get(i);
-
-                    i.setComments(comments.stream()
-                            .map(CommentMapper::toCommentResponseDto)
-                            .collect(toList())
-                    );
-
-                    if (lastBooking != null) {
-                        i.setLastBooking(BookingMapper.toBookingForItemDto(lastBooking.getFirst()));
-                    } else {
-                        i.setLastBooking(null);
+                .map(item -> {
+                    ItemResponseDto i = ItemMapper.toItemResponseDto(item);
+                    i.setComments(itemComments.getOrDefault(item.getId(), List.of()));
+                    i.setNextCommentsCursor(nextCommentsCursor(i.getComments(), commentsSize));
+
+                    if (item.getLastBookingId() != null) {
+                        i.setLastBooking(BookingMapper.toBookingForItemDto(item.getLastBookingId(), item.getLastBookerId()));
                     }
 
-                    if (nextBooking != null) {
-                        i.setNextBooking(BookingMapper.toBookingForItemDto(nextBooking.getFirst()));
-                    } else {
-                        i.setNextBooking(null);
+                    if (item.getNextBookingId() != null) {
+                        i.setNextBooking(BookingMapper.toBookingForItemDto(item.getNextBookingId(), item.getNextBookerId()));
                     }
+
+                    return i;
                 })
                 .collect(toList());
     }
 
     @Override
-    public List<ItemCreateDto> searchItem(String text) {
-        return itemRepository.findByNameOrDescriptionLike(text).stream()
+    public String getVersionTag(Long itemId, Long userId) {
+        validateExistsUser(userId);
+
+        return itemRepository.findVersionTag(itemId, userId);
+    }
+
+    @Override
+    public String getUserItemsVersionTag(Long userId) {
+        validateExistsUser(userId);
+
+        return itemRepository.findOwnerVersionTag(userId);
+    }
+
+    @Override
+    public List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from))
+            throw new DateBookingException("Некорректный период доступности");
+
+        Item item = itemRepository.findById(itemId).orElseThrow(
+                () -> new NotFoundException("Вещи с ID " + itemId + " не найдено")
+        );
+        if (!item.getAvailable())
+            return List.of();
+
+        List<AvailabilityWindowDto> windows = new ArrayList<>();
+        LocalDateTime free = from;
+        for (Booking booking : bookingRepository.findOverlappingBookingsByItemId(itemId, from, to)) {
+            if (booking.getStart().isAfter(free))
+                windows.add(AvailabilityWindowDto.builder().start(free).end(booking.getStart()).build());
+            if (booking.getEnd().isAfter(free))
+                free = booking.getEnd();
+        }
+        if (to.isAfter(free))
+            windows.add(AvailabilityWindowDto.builder().start(free).end(to).build());
+
+        return windows;
+    }
+
+    @Override
+    public List<ItemCreateDto> searchItem(String text, int from, int size) {
+        return itemSearch.search(text, PageRequest.of(from, size)).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    public void streamSearchItem(String text, Consumer<ItemCreateDto> action) {
+        try (Stream<Item> items = itemSearch.stream(text)) {
+            items.map(ItemMapper::toItemDto).forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentCreateDto commentCreateDto) {
         User author = userRepository.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
         );
 
-        Item item = itemRepository.findById(itemId).orElseThrow(
-                () -> new NotFoundException("Вещи с ID " + itemId + " не найдено")
-        );
+        if (!itemRepository.existsItemById(itemId))
+            throw new NotFoundException("Вещи с ID " + itemId + " не найдено");
 
         if (!bookingRepository.existsCurrentAndPastBookingByUserId(userId))
             throw new NotBookerException("Пользователь " + userId + " не брал вещь " + itemId + " в аренду");
 
         Comment createdComment = CommentMapper.toComment(commentCreateDto);
-        createdComment.setItem(item);
+        createdComment.setItem(itemRepository.getReferenceById(itemId));
         createdComment.setAuthor(author);
         createdComment.setCreated(LocalDateTime.now());
 
@@ -186,27 +232,38 @@ public class ItemServiceImpl implements ItemService {
         );
     }
 
-    private BookingForItemDto getLastBookingForItem(Long itemId) {
-        List<Booking> bookings = bookingRepository.findLastBookingByItemId(itemId);
-        Optional<Booking> optBooking = bookings.stream().findFirst();
-        if (optBooking.isEmpty())
+    private void validateExistsUser(Long userId) {
+        if (!userRepository.existsUserById(userId))
+            throw new NotFoundException("Пользователя с ID " + userId + " не найдено");
+    }
+
+    private List<CommentResponseDto> findComments(Long itemId, KeysetCursor after, int size) {
+        return commentRepository.findViewsByItemId(itemId, after.getTimestamp(), after.getId(), PageRequest.ofSize(size))
+                .stream()
+                .map(CommentMapper::toCommentResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    private static String nextCommentsCursor(List<CommentResponseDto> comments, int size) {
+        if (comments.size() < size)
             return null;
-        Booking booking = optBooking.get();
-        return BookingForItemDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build();
+
+        CommentResponseDto last = comments.getLast();
+        return new KeysetCursor(last.getCreated(), last.getId()).encode();
+    }
+
+    private BookingForItemDto getLastBookingForItem(Long itemId) {
+        return toBookingForItemDto(bookingRepository.findLastBookingByItemId(itemId, PageRequest.ofSize(1)));
     }
 
     private BookingForItemDto getNextBookingForItem(Long itemId) {
-        List<Booking> bookings = bookingRepository.findNextBookingByItemId(itemId);
-        Optional<Booking> optBooking = bookings.stream().findFirst();
-        if (optBooking.isEmpty())
-            return null;
-        Booking booking = optBooking.get();
-        return BookingForItemDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build();
+        return toBookingForItemDto(bookingRepository.findNextBookingByItemId(itemId, PageRequest.ofSize(1)));
+    }
+
+    private static BookingForItemDto toBookingForItemDto(List<BookingForItemView> bookings) {
+        return bookings.stream()
+                .findFirst()
+                .map(booking -> BookingMapper.toBookingForItemDto(booking.id(), booking.bookerId()))
+                .orElse(null);
     }
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Portable substring search for databases without full-text indexes (H2 in tests and CI).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like")
+public class LikeItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        return itemRepository.findByNameOrDescriptionLike(text, page);
+    }
+
+    @Override
+    public Stream<Item> stream(String text) {
+        return itemRepository.streamByNameOrDescriptionLike(text).peek(entityManager::detach);
+    }
+}
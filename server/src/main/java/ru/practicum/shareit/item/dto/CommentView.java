@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public record CommentView(
+        Long id,
+        Long itemId,
+        String text,
+        String authorName,
+        LocalDateTime created
+) {
+}
@@ -22,4 +22,6 @@ public class ItemResponseDto {
     private BookingForItemDto nextBooking;
 
     private List<CommentResponseDto> comments;
+
+    private String nextCommentsCursor;
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemWithBookingsDto {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+}
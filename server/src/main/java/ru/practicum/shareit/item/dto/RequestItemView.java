@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+public record RequestItemView(
+        Long id,
+        String name,
+        Long ownerId,
+        Long requestId
+) {
+}
@@ -8,9 +8,11 @@ import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 @Builder
@@ -24,7 +26,8 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     private String text;
@@ -40,4 +43,7 @@ public class Comment {
     private User author;
 
     private LocalDateTime created;
+
+    @Version
+    private Long version;
 }
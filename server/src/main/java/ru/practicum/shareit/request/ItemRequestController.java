@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.HeaderName;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -47,8 +49,11 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequest(@PathVariable long requestId) {
+    public ItemRequestDto getRequest(@PathVariable long requestId,
+                                     WebRequest request) {
         log.info("GET /requests/{}", requestId);
+        if (EntityTag.checkNotModified(request, itemRequestService.getVersionTag(requestId)))
+            return null;
         return itemRequestService.getRequest(requestId);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 @UtilityClass
@@ -20,4 +21,12 @@ public class ItemRequestMapper {
                 .created(request.getCreated())
                 .build();
     }
+
+    public ItemRequestDto itemRequestToItemRequestDto(ItemRequestView request) {
+        return ItemRequestDto.builder()
+                .id(request.id())
+                .description(request.description())
+                .created(request.created())
+                .build();
+    }
 }
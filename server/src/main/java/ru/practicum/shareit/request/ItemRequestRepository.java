@@ -1,10 +1,36 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorId(long requestorId);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestView(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "where r.requestor.id = ?1")
+    List<ItemRequestView> findAllByRequestorId(long requestorId);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestView(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "order by r.created desc")
+    List<ItemRequestView> findAllViews(Pageable page);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestView(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "where r.id = ?1")
+    Optional<ItemRequestView> findViewById(long requestId);
+
+    @Query(value = "select concat_ws(':', r.version, " +
+            "(select concat_ws(':', count(*), sum(i.id), sum(i.version)) " +
+            "from items i " +
+            "where i.request_id = r.id)) " +
+            "from requests r " +
+            "where r.id = ?1",
+            nativeQuery = true)
+    String findVersionTag(long requestId);
 }
@@ -14,4 +14,6 @@ public interface ItemRequestService {
     public List<ItemRequestDto> getRequests(long from, long size);
 
     public ItemRequestDto getRequest(long requestId);
+
+    public String getVersionTag(long requestId);
 }
\ No newline at end of file
@@ -3,16 +3,16 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.RequestItemView;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -22,13 +22,14 @@ import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
@@ -37,6 +38,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(long userId, ItemRequestCreateDto request) {
         User user = userRepository.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
@@ -58,20 +60,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 () -> new NotFoundException("Пользователя с ID " + userId + " не найдено")
         );
 
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorId(userId);
+        List<ItemRequestView> requests = itemRequestRepository.findAllByRequestorId(userId);
         List<Long> requestsId = requests.stream()
-                .map(r -> r.getId())
+                .map(ItemRequestView::id)
                 .collect(toList());
-        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdIn(requestsId).stream()
-                .collect(groupingBy(i -> i.getRequest().getId(), toList()));
+        Map<Long, List<ItemForRequestDto>> items = itemRepository.findAllByRequestIdIn(requestsId).stream()
+                .collect(groupingBy(RequestItemView::requestId, mapping(ItemMapper::toRequestItemDto, toList())));
 
         return requests.stream()
                 .map(r -> ItemRequestWithItemsDto.builder()
-                        .items(items.getOrDefault(r.getId(), List.of()).stream()
-                                .map(ItemMapper::toRequestItemDto)
-                                .collect(toList()))
-                        .description(r.getDescription())
-                        .created(r.getCreated())
+                        .items(items.getOrDefault(r.id(), List.of()))
+                        .description(r.description())
+                        .created(r.created())
                         .build())
                 .sorted(Comparator.comparing(ItemRequestWithItemsDto::getCreated).reversed())
                 .collect(toList());
@@ -79,27 +79,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getRequests(long from, long size) {
-        Pageable page = PageRequest.of((int) from, (int) size, Sort.by("created").descending());
-        List<ItemRequest> requests = itemRequestRepository.findAll(page).toList();
-
-        return requests.stream()
+        return itemRequestRepository.findAllViews(PageRequest.of((int) from, (int) size)).stream()
                 .map(ItemRequestMapper::itemRequestToItemRequestDto)
                 .collect(toList());
     }
 
     @Override
     public ItemRequestDto getRequest(long requestId) {
-        Optional<ItemRequest> itemRequest = itemRequestRepository.findById(requestId);
-
-        if (itemRequest.isEmpty())
-            throw new NotFoundException("Запроса с ID " + requestId + " не найдено");
+        ItemRequestView itemRequest = itemRequestRepository.findViewById(requestId).orElseThrow(
+                () -> new NotFoundException("Запроса с ID " + requestId + " не найдено")
+        );
 
-        List<ItemForRequestDto> items = itemRepository.findAllByRequestId(requestId).stream()
+        List<ItemForRequestDto> items = itemRepository.findAllByRequestIdIn(List.of(requestId)).stream()
                 .map(ItemMapper::toRequestItemDto)
                 .collect(toList());
 
-        ItemRequestDto itemRequestDto = ItemRequestMapper.itemRequestToItemRequestDto(itemRequest.get());
+        ItemRequestDto itemRequestDto = ItemRequestMapper.itemRequestToItemRequestDto(itemRequest);
         itemRequestDto.setItems(items);
         return itemRequestDto;
     }
+
+    @Override
+    public String getVersionTag(long requestId) {
+        return itemRequestRepository.findVersionTag(requestId);
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+public record ItemRequestView(
+        Long id,
+        String description,
+        LocalDateTime created
+) {
+}
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.EntityTag;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.ValidateMarker;
 
@@ -42,8 +44,11 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getById(@PathVariable Long userId) {
+    public UserDto getById(@PathVariable Long userId,
+                           WebRequest request) {
         log.info("GET /users/{}", userId);
+        if (EntityTag.checkNotModified(request, userService.getVersionTag(userId)))
+            return null;
         return userService.getById(userId);
     }
 }
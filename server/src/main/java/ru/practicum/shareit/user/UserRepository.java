@@ -9,8 +9,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
-    @Query("select case when count(u) > 0 then true else false end  " +
-            "from User u " +
-            "where u.email = ?1")
-    Boolean existsEmail(String email);
+    @Query(value = "select exists (select 1 from users u where u.id = ?1 limit 1)", nativeQuery = true)
+    boolean existsUserById(long userId);
+
+    @Query(value = "select exists (select 1 from users u where u.email = ?1 limit 1)", nativeQuery = true)
+    boolean existsEmail(String email);
+
+    @Query("select u.version from User u where u.id = ?1")
+    Long findVersionById(long userId);
 }
\ No newline at end of file
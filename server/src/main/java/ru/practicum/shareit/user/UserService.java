@@ -14,4 +14,6 @@ public interface UserService {
     List<UserDto> getAll();
 
     UserDto getById(Long id);
+
+    String getVersionTag(Long id);
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -11,11 +12,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional
     public UserDto create(UserDto user) {
         return UserMapper.toUserDto(
                 userRepository.save(UserMapper.toUser(user))
@@ -23,6 +26,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto update(Long id, UserDto user) {
         User newUser = userRepository.findById(id).orElseThrow(
                 () -> new NotFoundException("Пользователя с ID " + id + " не найдено")
@@ -41,6 +45,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         userRepository.findById(id).orElseThrow(
                 () -> new NotFoundException("Пользователя с ID " + id + " не найдено")
@@ -64,4 +69,10 @@ public class UserServiceImpl implements UserService {
 
         return UserMapper.toUserDto(user);
     }
+
+    @Override
+    public String getVersionTag(Long id) {
+        Long version = userRepository.findVersionById(id);
+        return version != null ? version.toString() : null;
+    }
 }
\ No newline at end of file
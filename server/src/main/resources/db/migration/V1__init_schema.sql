@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, items, booking, requests, comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
   id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name varchar(64),
@@ -51,4 +49,4 @@ ALTER TABLE requests ADD FOREIGN KEY (user_id) REFERENCES users (id);
 
 ALTER TABLE comments ADD FOREIGN KEY (item_id) REFERENCES items (id);
 
-ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id);
\ No newline at end of file
+ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id);
@@ -0,0 +1,19 @@
+CREATE INDEX IF NOT EXISTS booking_booker_start_idx ON booking (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_booker_status_start_idx ON booking (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_status_start_idx ON booking (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS booking_item_status_end_idx ON booking (item_id, status, end_date DESC);
+
+CREATE INDEX IF NOT EXISTS items_user_idx ON items (user_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS requests_user_created_idx ON requests (user_id, create_date DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (create_date DESC);
@@ -0,0 +1,9 @@
+ALTER TABLE users ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE items ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE booking ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE requests ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE comments ADD COLUMN version bigint DEFAULT 0 NOT NULL;
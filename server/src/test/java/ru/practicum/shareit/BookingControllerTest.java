@@ -3,12 +3,16 @@ package ru.practicum.shareit;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingService;
@@ -16,11 +20,15 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exception.AlreadyApprovedException;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotFoundException;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -28,11 +36,14 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -80,6 +91,41 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus())));
     }
 
+    @Test
+    public void createBookingLosingToOverlapConstraint() throws Exception {
+        SQLException violation = new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"booking_no_overlap\"", "23P01");
+        when(bookingService.create(anyLong(), any()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(validBooking()))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(409))
+                .andExpect(jsonPath("$.exception", is(BookingOverlapException.class.getName())))
+                .andExpect(jsonPath("$.error", is("Вещь уже забронирована на эти даты")));
+    }
+
+    @Test
+    public void createBookingWithOtherIntegrityViolation() throws Exception {
+        SQLException violation = new SQLException(
+                "ERROR: insert or update on table \"booking\" violates foreign key constraint", "23503");
+        when(bookingService.create(anyLong(), any()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(validBooking()))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(500))
+                .andExpect(jsonPath("$.error", is("Нарушена целостность данных")));
+    }
+
     @Test
     public void createBookingWithNullStartDate() throws Exception {
         BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
@@ -100,6 +146,54 @@ public class BookingControllerTest {
 
     }
 
+    @Test
+    public void createBatchWithInvalidBooking() throws Exception {
+        List<BookingCreateDto> bookings = List.of(
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.now().plus(1, ChronoUnit.DAYS))
+                        .end(LocalDateTime.now().plus(2, ChronoUnit.DAYS))
+                        .itemId(1L)
+                        .build(),
+                BookingCreateDto.builder()
+                        .start(null)
+                        .end(LocalDateTime.now().plus(2, ChronoUnit.DAYS))
+                        .itemId(1L)
+                        .build()
+        );
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(bookings))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400))
+                .andExpect(result ->
+                        assertThat(result.getResolvedException() instanceof HandlerMethodValidationException, equalTo(true)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1001})
+    public void createBatchWithOutOfRangeSize(int size) throws Exception {
+        BookingCreateDto booking = BookingCreateDto.builder()
+                .start(LocalDateTime.now().plus(1, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().plus(2, ChronoUnit.DAYS))
+                .itemId(1L)
+                .build();
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(Collections.nCopies(size, booking)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400))
+                .andExpect(result ->
+                        assertThat(result.getResolvedException() instanceof HandlerMethodValidationException, equalTo(true)));
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     public void createBookingWithNullEndDate() throws Exception {
         BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
@@ -326,7 +420,7 @@ public class BookingControllerTest {
                 .status(BookingStatus.APPROVED.name())
                 .build();
 
-        when(bookingService.getBookings(anyLong(), any())).thenReturn(List.of(bookingDto1, bookingDto2));
+        when(bookingService.getBookings(anyLong(), any(), any(), anyInt())).thenReturn(List.of(bookingDto1, bookingDto2));
 
         mvc.perform(get("/bookings?state=FUTURE")
                         .header("X-Sharer-User-Id", 1L)
@@ -368,7 +462,7 @@ public class BookingControllerTest {
                 .status(BookingStatus.APPROVED.name())
                 .build();
 
-        when(bookingService.getBookingItemOwner(anyLong(), any())).thenReturn(List.of(bookingDto1, bookingDto2));
+        when(bookingService.getBookingItemOwner(anyLong(), any(), any(), anyInt())).thenReturn(List.of(bookingDto1, bookingDto2));
 
         mvc.perform(get("/bookings/owner?state=FUTURE")
                         .header("X-Sharer-User-Id", 1L)
@@ -396,7 +490,7 @@ public class BookingControllerTest {
 
     @Test
     public void getBookingByNotExistsItemOwner() throws Exception {
-        when(bookingService.getBookingItemOwner(anyLong(), any())).thenThrow(new NotFoundException("test exception"));
+        when(bookingService.getBookingItemOwner(anyLong(), any(), any(), anyInt())).thenThrow(new NotFoundException("test exception"));
 
         mvc.perform(get("/bookings/owner?state=ALL")
                         .header("X-Sharer-User-Id", 1L)
@@ -407,4 +501,82 @@ public class BookingControllerTest {
                 .andExpect(result ->
                         assertThat(result.getResolvedException() instanceof NotFoundException, equalTo(true)));
     }
+
+    @Test
+    public void getBookingByStateWithNextCursor() throws Exception {
+        BookingDto bookingDto = BookingDto.builder()
+                .id(3L)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .end(LocalDateTime.of(2030, 1, 2, 12, 0))
+                .status(BookingStatus.APPROVED.name())
+                .build();
+
+        when(bookingService.getBookings(anyLong(), any(), any(), anyInt())).thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings?state=ALL&size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(header().string(HeaderName.NEXT_CURSOR,
+                        new KeysetCursor(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    public void getBookingByStateLastPageWithoutCursor() throws Exception {
+        when(bookingService.getBookings(anyLong(), any(), any(), anyInt())).thenReturn(List.of());
+
+        mvc.perform(get("/bookings?state=ALL&size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(header().doesNotExist(HeaderName.NEXT_CURSOR));
+    }
+
+    @Test
+    public void getBookingByStateWithIncorrectCursor() throws Exception {
+        when(bookingService.getBookings(anyLong(), any(), any(), anyInt()))
+                .thenThrow(new InvalidCursorException("test exception"));
+
+        mvc.perform(get("/bookings?state=ALL&cursor=abc")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400))
+                .andExpect(result ->
+                        assertThat(result.getResolvedException() instanceof InvalidCursorException, equalTo(true)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "101"})
+    public void getBookingByStateWithOutOfRangeSize(String size) throws Exception {
+        mvc.perform(get("/bookings/owner?state=ALL&size=" + size)
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+
+        mvc.perform(get("/bookings?state=ALL&size=" + size)
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+
+        verifyNoInteractions(bookingService);
+    }
+
+    private static BookingCreateDto validBooking() {
+        return BookingCreateDto.builder()
+                .start(LocalDateTime.now().plus(1, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().plus(2, ChronoUnit.DAYS))
+                .itemId(1L)
+                .build();
+    }
 }
@@ -1,25 +1,41 @@
 package ru.practicum.shareit;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingArchiver;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(
@@ -29,8 +45,10 @@ import static org.hamcrest.Matchers.equalTo;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingServiceIntegrationTest {
     private final BookingService bookingService;
+    private final BookingArchiver bookingArchiver;
     private final ItemService itemService;
     private final UserService userService;
+    private final EntityManager entityManager;
 
     @Test
     public void getDifferentUserBookings() {
@@ -54,6 +72,8 @@ public class BookingServiceIntegrationTest {
         UserDto createdUser2 = userService.create(userDto2);
 
         ItemCreateDto createdItem = itemService.create(createdUser1.getId(), itemCreateDto1);
+        ItemCreateDto createdItem2 = itemService.create(createdUser1.getId(), itemCreateDto1);
+        ItemCreateDto createdItem3 = itemService.create(createdUser1.getId(), itemCreateDto1);
 
         BookingCreateDto bookingCreateDto1 = BookingCreateDto.builder()
                 .start(LocalDateTime.now().minus(3, ChronoUnit.DAYS))
@@ -76,13 +96,13 @@ public class BookingServiceIntegrationTest {
         BookingCreateDto bookingCreateDto4 = BookingCreateDto.builder()
                 .start(LocalDateTime.now().minus(3, ChronoUnit.DAYS))
                 .end(LocalDateTime.now().plus(5, ChronoUnit.DAYS))
-                .itemId(createdItem.getId())
+                .itemId(createdItem2.getId())
                 .build();
 
         BookingCreateDto bookingCreateDto5 = BookingCreateDto.builder()
                 .start(LocalDateTime.now().minus(3, ChronoUnit.DAYS))
                 .end(LocalDateTime.now().plus(5, ChronoUnit.DAYS))
-                .itemId(createdItem.getId())
+                .itemId(createdItem3.getId())
                 .build();
 
         BookingDto createdBooking1 = bookingService.create(createdUser2.getId(), bookingCreateDto1);
@@ -96,12 +116,12 @@ public class BookingServiceIntegrationTest {
         bookingService.changeStatus(createdUser1.getId(), createdBooking3.getId(), true);
         bookingService.changeStatus(createdUser1.getId(), createdBooking4.getId(), false);
 
-        List<BookingDto> allBookings = bookingService.getBookings(createdUser2.getId(), BookingState.ALL);
-        List<BookingDto> currentBookings = bookingService.getBookings(createdUser2.getId(), BookingState.CURRENT);
-        List<BookingDto> pastBookings = bookingService.getBookings(createdUser2.getId(), BookingState.PAST);
-        List<BookingDto> futureBookings = bookingService.getBookings(createdUser2.getId(), BookingState.FUTURE);
-        List<BookingDto> rejectedBookings = bookingService.getBookings(createdUser2.getId(), BookingState.REJECTED);
-        List<BookingDto> waitingBookings = bookingService.getBookings(createdUser2.getId(), BookingState.WAITING);
+        List<BookingDto> allBookings = bookingService.getBookings(createdUser2.getId(), BookingState.ALL, null, 20);
+        List<BookingDto> currentBookings = bookingService.getBookings(createdUser2.getId(), BookingState.CURRENT, null, 20);
+        List<BookingDto> pastBookings = bookingService.getBookings(createdUser2.getId(), BookingState.PAST, null, 20);
+        List<BookingDto> futureBookings = bookingService.getBookings(createdUser2.getId(), BookingState.FUTURE, null, 20);
+        List<BookingDto> rejectedBookings = bookingService.getBookings(createdUser2.getId(), BookingState.REJECTED, null, 20);
+        List<BookingDto> waitingBookings = bookingService.getBookings(createdUser2.getId(), BookingState.WAITING, null, 20);
 
         assertThat(allBookings.size(), equalTo(5));
 
@@ -115,4 +135,332 @@ public class BookingServiceIntegrationTest {
 
         assertThat(waitingBookings.size(), equalTo(1));
     }
+
+    @Test
+    public void getUserBookingsByCursorPages() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("test owner")
+                .email("owner@test.ru")
+                .build());
+
+        UserDto booker = userService.create(UserDto.builder()
+                .name("test booker")
+                .email("booker@test.ru")
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                    .name("test item " + i)
+                    .description("test item description")
+                    .available(true)
+                    .build());
+            bookingService.create(booker.getId(), BookingCreateDto.builder()
+                    .start(i < 2 ? start : start.plus(i, ChronoUnit.DAYS))
+                    .end(start.plus(10, ChronoUnit.DAYS))
+                    .itemId(item.getId())
+                    .build());
+        }
+
+        List<BookingDto> firstPage = bookingService.getBookings(booker.getId(), BookingState.ALL, null, 2);
+        String cursor = new KeysetCursor(firstPage.getLast().getStart(), firstPage.getLast().getId()).encode();
+        List<BookingDto> secondPage = bookingService.getBookings(booker.getId(), BookingState.ALL, cursor, 2);
+        cursor = new KeysetCursor(secondPage.getLast().getStart(), secondPage.getLast().getId()).encode();
+        List<BookingDto> thirdPage = bookingService.getBookings(booker.getId(), BookingState.ALL, cursor, 2);
+
+        List<BookingDto> allBookings = bookingService.getBookings(booker.getId(), BookingState.ALL, null, 20);
+
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(secondPage.size(), equalTo(2));
+        assertThat(thirdPage.size(), equalTo(1));
+        assertThat(thirdPage.getFirst().getId(), equalTo(allBookings.getLast().getId()));
+        assertThat(secondPage.getLast().getStart(), equalTo(start));
+        assertThat(secondPage.getFirst().getId(), equalTo(allBookings.get(2).getId()));
+    }
+
+    @Test
+    public void createBatchReportsEachBookingAndInsertsInBatches() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("batch owner")
+                .email("batch-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("batch booker")
+                .email("batch-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("batch item")
+                .description("batch item description")
+                .available(true)
+                .build());
+        ItemCreateDto ownItem = itemService.create(booker.getId(), ItemCreateDto.builder()
+                .name("own item")
+                .description("own item description")
+                .available(true)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        List<BookingCreateDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            bookings.add(BookingCreateDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .build());
+        }
+        bookings.add(BookingCreateDto.builder()
+                .itemId(-1L)
+                .start(start)
+                .end(start.plusHours(1))
+                .build());
+        bookings.add(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start.plusHours(1))
+                .end(start)
+                .build());
+        bookings.add(BookingCreateDto.builder()
+                .itemId(ownItem.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build());
+        bookings.add(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start.plusMinutes(30))
+                .end(start.plusHours(2))
+                .build());
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        List<BookingBatchResultDto> results = bookingService.createBatch(booker.getId(), bookings);
+        entityManager.flush();
+
+        assertThat(results.size(), equalTo(34));
+        for (int i = 0; i < 30; i++) {
+            assertThat(results.get(i).getBooking().getId(), notNullValue());
+            assertThat(results.get(i).getBooking().getStart(), equalTo(start.plusDays(i)));
+            assertThat(results.get(i).getError(), nullValue());
+        }
+        assertThat(results.get(30).getBooking(), nullValue());
+        assertThat(results.get(30).getException(), equalTo("ru.practicum.shareit.exception.NotFoundException"));
+        assertThat(results.get(31).getException(), equalTo("ru.practicum.shareit.exception.DateBookingException"));
+        assertThat(results.get(32).getException(), equalTo("ru.practicum.shareit.exception.NotFoundException"));
+        assertThat(results.get(33).getException(), equalTo("ru.practicum.shareit.exception.BookingOverlapException"));
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore, lessThan(10L));
+
+        List<BookingDto> saved = bookingService.getBookings(booker.getId(), BookingState.ALL, null, 50);
+        assertThat(saved.size(), equalTo(30));
+    }
+
+    @Test
+    public void createOverlappingBookingThrowsUntilFirstIsRejected() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("overlap owner")
+                .email("overlap-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("overlap booker")
+                .email("overlap-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("overlap item")
+                .description("overlap item description")
+                .available(true)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto first = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(2))
+                .build());
+        BookingCreateDto overlapping = BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start.plusDays(1))
+                .end(start.plusDays(3))
+                .build();
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(booker.getId(), overlapping));
+
+        BookingDto adjacent = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start.plusDays(2))
+                .end(start.plusDays(4))
+                .build());
+        bookingService.changeStatus(owner.getId(), first.getId(), false);
+        bookingService.changeStatus(owner.getId(), adjacent.getId(), false);
+
+        assertThat(bookingService.create(booker.getId(), overlapping).getId(), notNullValue());
+    }
+
+    @Test
+    public void changeStatusOnlyDecidesWaitingBookingOnce() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("status owner")
+                .email("status-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("status booker")
+                .email("status-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("status item")
+                .description("status item description")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto booking = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+        String versionTag = bookingService.getVersionTag(owner.getId(), booking.getId());
+
+        BookingDto rejected = bookingService.changeStatus(owner.getId(), booking.getId(), false);
+
+        assertThat(rejected.getStatus(), equalTo("REJECTED"));
+        assertThat(bookingService.get(booker.getId(), booking.getId()).getStatus(), equalTo("REJECTED"));
+        assertThat(bookingService.getVersionTag(owner.getId(), booking.getId()), not(equalTo(versionTag)));
+        assertThrows(BookingStatusConflictException.class,
+                () -> bookingService.changeStatus(owner.getId(), booking.getId(), true));
+    }
+
+    @Test
+    public void archiveMovesOnlyBookingsEndedBeforeHorizon() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("archive owner")
+                .email("archive-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("archive booker")
+                .email("archive-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("archive item")
+                .description("archive item description")
+                .available(true)
+                .build());
+        BookingDto old = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(400, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(399, ChronoUnit.DAYS))
+                .build());
+        BookingDto recent = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(3, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(2, ChronoUnit.DAYS))
+                .build());
+
+        bookingArchiver.archive();
+
+        assertThat(isArchived(old.getId()), equalTo(true));
+        assertThat(isArchived(recent.getId()), equalTo(false));
+        assertThat(bookingService.getBookings(booker.getId(), BookingState.PAST, null, 20).size(), equalTo(2));
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void archiveKeepsSecondLevelCache() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("archive cache owner")
+                .email("archive-cache-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("archive cache booker")
+                .email("archive-cache-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("archive cache item")
+                .description("archive cache item description")
+                .available(true)
+                .build());
+        bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(400, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(399, ChronoUnit.DAYS))
+                .build());
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evictAll();
+        userService.getById(owner.getId());
+        assertThat(cache.contains(User.class, owner.getId()), equalTo(true));
+
+        bookingArchiver.archive();
+
+        assertThat(cache.contains(User.class, owner.getId()), equalTo(true));
+    }
+
+    @Test
+    public void overlapWithArchivedBookingIsRejected() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("archive overlap owner")
+                .email("archive-overlap-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("archive overlap booker")
+                .email("archive-overlap-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("archive overlap item")
+                .description("archive overlap item description")
+                .available(true)
+                .build());
+        BookingCreateDto old = BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(400, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(399, ChronoUnit.DAYS))
+                .build();
+        BookingDto archived = bookingService.create(booker.getId(), old);
+        bookingArchiver.archive();
+
+        assertThat(isArchived(archived.getId()), equalTo(true));
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(booker.getId(), old));
+    }
+
+    @Test
+    public void bookingListsAreProjectedWithoutLoadingEntities() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("graph owner")
+                .email("graph-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("graph booker")
+                .email("graph-booker@test.ru")
+                .build());
+        LocalDateTime start = LocalDateTime.now().plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < 10; i++) {
+            ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                    .name("graph item " + i)
+                    .description("graph item description")
+                    .available(true)
+                    .build());
+            bookingService.create(booker.getId(), BookingCreateDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .build());
+        }
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long entitiesBefore = statistics.getEntityLoadCount();
+
+        List<BookingDto> bookerBookings = bookingService.getBookings(booker.getId(), BookingState.ALL, null, 20);
+        List<BookingDto> ownerBookings = bookingService.getBookingItemOwner(owner.getId(), BookingState.FUTURE, null, 20);
+
+        assertThat(bookerBookings.size(), equalTo(10));
+        assertThat(ownerBookings.size(), equalTo(10));
+        assertThat(ownerBookings.get(0).getItem().getName(), equalTo("graph item 9"));
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore, lessThanOrEqualTo(5L));
+        assertThat(statistics.getEntityLoadCount() - entitiesBefore, equalTo(0L));
+    }
+
+    private boolean isArchived(Long bookingId) {
+        return entityManager.createQuery("select b.archived from Booking b where b.id = :id", Boolean.class)
+                .setParameter("id", bookingId)
+                .getSingleResult();
+    }
 }
@@ -15,7 +15,9 @@ import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.exception.AlreadyApprovedException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.exception.DateBookingException;
 import ru.practicum.shareit.exception.ItemUnvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -27,12 +29,14 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 
 @ActiveProfiles("test")
@@ -179,7 +183,7 @@ public class BookingServiceTest {
                 .build();
 
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
         given(bookingRepository.save(BookingMapper.fromBookingCreateDto(createBookingDto)))
                 .willReturn(futureBooking);
 
@@ -203,7 +207,7 @@ public class BookingServiceTest {
                 .itemId(futureBooking.getItem().getId())
                 .build();
 
-        given(userRepository.findById(4L)).willReturn(Optional.empty());
+        given(userRepository.existsUserById(4L)).willReturn(false);
 
         assertThrowsExactly(NotOwnerException.class, () -> bookingService.create(4L, createBookingDto));
     }
@@ -217,7 +221,7 @@ public class BookingServiceTest {
                 .build();
 
 
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
         given(itemRepository.findById(4L)).willReturn(Optional.empty());
 
         assertThrowsExactly(NotFoundException.class, () -> bookingService.create(user3.getId(), createBookingDto));
@@ -231,7 +235,7 @@ public class BookingServiceTest {
                 .itemId(item1.getId())
                 .build();
 
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
 
         assertThrowsExactly(DateBookingException.class, () -> bookingService.create(user3.getId(), createBookingDto));
@@ -257,7 +261,7 @@ public class BookingServiceTest {
 
         item1.setAvailable(false);
 
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
 
         assertThrowsExactly(ItemUnvailableException.class, () -> bookingService.create(user3.getId(), createBookingDto));
@@ -271,7 +275,7 @@ public class BookingServiceTest {
                 .itemId(item1.getId())
                 .build();
 
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
 
         assertThrowsExactly(NotFoundException.class, () -> bookingService.create(user1.getId(), createBookingDto));
@@ -279,10 +283,10 @@ public class BookingServiceTest {
 
     @Test
     public void changeBookingStatusToApprove() {
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
         given(bookingRepository.findById(waitingBooking.getId()))
                 .willReturn(Optional.of(waitingBooking));
-        given(bookingRepository.save(any())).willReturn(waitingBooking);
+        given(bookingRepository.updateWaitingStatus(waitingBooking.getId(), BookingStatus.APPROVED)).willReturn(1);
 
         BookingDto responseDto = bookingService.changeStatus(user1.getId(), waitingBooking.getId(), true);
 
@@ -298,10 +302,10 @@ public class BookingServiceTest {
 
     @Test
     public void changeBookingStatusToReject() {
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
         given(bookingRepository.findById(waitingBooking.getId()))
                 .willReturn(Optional.of(waitingBooking));
-        given(bookingRepository.save(any())).willReturn(waitingBooking);
+        given(bookingRepository.updateWaitingStatus(waitingBooking.getId(), BookingStatus.REJECTED)).willReturn(1);
 
         BookingDto responseDto = bookingService.changeStatus(user1.getId(), waitingBooking.getId(), false);
 
@@ -325,7 +329,7 @@ public class BookingServiceTest {
 
     @Test
     public void changeBookingStatusByNotItemOwner() {
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
         given(bookingRepository.findById(waitingBooking.getId()))
                 .willReturn(Optional.of(waitingBooking));
 
@@ -337,7 +341,7 @@ public class BookingServiceTest {
 
     @Test
     public void changeBookingStatusToAlreadyApproved() {
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
         waitingBooking.setStatus(BookingStatus.APPROVED);
         given(bookingRepository.findById(waitingBooking.getId()))
                 .willReturn(Optional.of(waitingBooking));
@@ -348,6 +352,19 @@ public class BookingServiceTest {
                 true));
     }
 
+    @Test
+    public void changeBookingStatusAlreadyChanged() {
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+        given(bookingRepository.findById(waitingBooking.getId()))
+                .willReturn(Optional.of(waitingBooking));
+        given(bookingRepository.updateWaitingStatus(waitingBooking.getId(), BookingStatus.APPROVED)).willReturn(0);
+
+        assertThrowsExactly(BookingStatusConflictException.class, () -> bookingService.changeStatus(
+                user1.getId(),
+                waitingBooking.getId(),
+                true));
+    }
+
     @Test
     public void getBookingByItemOwner() {
         given(bookingRepository.findById(futureBooking.getId()))
@@ -395,12 +412,12 @@ public class BookingServiceTest {
 
     @Test
     public void getAllBookingsByItemOwner() {
-        given(bookingRepository.findBookingByItemsOwner(user1.getId()))
-                .willReturn(List.of(futureBooking, pastBooking));
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
-        given(itemRepository.countByOwnerId(user1.getId())).willReturn(2L);
+        given(bookingRepository.findBookingByItemsOwner(eq(user1.getId()), any(), any(), any()))
+                .willReturn(views(futureBooking, pastBooking));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user1.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.ALL);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.ALL, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -419,12 +436,12 @@ public class BookingServiceTest {
 
     @Test
     public void getFutureBookingsByItemOwner() {
-        given(bookingRepository.findFutureBookingByItemsOwner(user1.getId()))
-                .willReturn(List.of(futureBooking));
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
-        given(itemRepository.countByOwnerId(user1.getId())).willReturn(1L);
+        given(bookingRepository.findFutureBookingByItemsOwner(eq(user1.getId()), any(), any(), any()))
+                .willReturn(views(futureBooking));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user1.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.FUTURE);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.FUTURE, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -438,12 +455,12 @@ public class BookingServiceTest {
 
     @Test
     public void getPastBookingsByItemOwner() {
-        given(bookingRepository.findPastBookingByItemsOwner(user1.getId()))
-                .willReturn(List.of(pastBooking));
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
-        given(itemRepository.countByOwnerId(user1.getId())).willReturn(1L);
+        given(bookingRepository.findPastBookingByItemsOwner(eq(user1.getId()), any(), any(), any()))
+                .willReturn(views(pastBooking));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user1.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.PAST);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.PAST, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -457,12 +474,12 @@ public class BookingServiceTest {
 
     @Test
     public void getCurrentBookingsByItemOwner() {
-        given(bookingRepository.findCurrentBookingByItemsOwner(user1.getId()))
-                .willReturn(List.of(currentBooking));
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
-        given(itemRepository.countByOwnerId(user1.getId())).willReturn(1L);
+        given(bookingRepository.findCurrentBookingByItemsOwner(eq(user1.getId()), any(), any(), any()))
+                .willReturn(views(currentBooking));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user1.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.CURRENT);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user1.getId(), BookingState.CURRENT, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -476,12 +493,12 @@ public class BookingServiceTest {
 
     @Test
     public void getWaitingBookingsByItemOwner() {
-        given(bookingRepository.findBookingByOwnerIdAndStatus(user3.getId(), BookingStatus.WAITING))
-                .willReturn(List.of(waitingBooking));
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
-        given(itemRepository.countByOwnerId(user3.getId())).willReturn(1L);
+        given(bookingRepository.findBookingByOwnerIdAndStatus(eq(user3.getId()), eq(BookingStatus.WAITING), any(), any(), any()))
+                .willReturn(views(waitingBooking));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user3.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user3.getId(), BookingState.WAITING);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user3.getId(), BookingState.WAITING, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -497,12 +514,12 @@ public class BookingServiceTest {
     public void getRejectedBookingsByItemOwner() {
         waitingBooking.setStatus(BookingStatus.REJECTED);
 
-        given(bookingRepository.findBookingByOwnerIdAndStatus(user3.getId(), BookingStatus.REJECTED))
-                .willReturn(List.of(waitingBooking));
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
-        given(itemRepository.countByOwnerId(user3.getId())).willReturn(1L);
+        given(bookingRepository.findBookingByOwnerIdAndStatus(eq(user3.getId()), eq(BookingStatus.REJECTED), any(), any(), any()))
+                .willReturn(views(waitingBooking));
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user3.getId())).willReturn(true);
 
-        List<BookingDto> bookings = bookingService.getBookingItemOwner(user3.getId(), BookingState.REJECTED);
+        List<BookingDto> bookings = bookingService.getBookingItemOwner(user3.getId(), BookingState.REJECTED, null, 20);
 
         assertAll(
                 "Verify get Booking",
@@ -516,12 +533,21 @@ public class BookingServiceTest {
 
     @Test
     public void getBookingsByItemOwnerWithoutItems() {
-        given(userRepository.findById(user3.getId())).willReturn(Optional.of(user3));
-        given(itemRepository.countByOwnerId(user3.getId())).willReturn(0L);
+        given(userRepository.existsUserById(user3.getId())).willReturn(true);
+        given(itemRepository.existsItemByOwnerId(user3.getId())).willReturn(false);
 
         assertThrowsExactly(NotFoundException.class, () -> bookingService.getBookingItemOwner(
                 user3.getId(),
-                BookingState.CURRENT)
+                BookingState.CURRENT,
+                null,
+                20)
         );
     }
+
+    private static List<BookingView> views(Booking... bookings) {
+        return Arrays.stream(bookings)
+                .map(b -> new BookingView(b.getId(), b.getStart(), b.getEnd(), b.getStatus(),
+                        b.getItem().getId(), b.getItem().getName(), b.getBooker().getId()))
+                .toList();
+    }
 }
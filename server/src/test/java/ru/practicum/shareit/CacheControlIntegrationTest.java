@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "jdbc.url=jdbc:h2:mem:shareit")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CacheControlIntegrationTest {
+    private final MockMvc mvc;
+    private final UserService userService;
+
+    @Test
+    public void entityIsRevalidatedOnEveryUse() throws Exception {
+        UserDto user = userService.create(UserDto.builder()
+                .name("cache user")
+                .email("cache-user@test.ru")
+                .build());
+
+        String etag = mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{userId}", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        userService.delete(user.getId());
+    }
+
+    @Test
+    public void allRequestsListIsFreshForShortTime() throws Exception {
+        mvc.perform(get("/requests/all")
+                        .header(HeaderName.USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:h2:mem:shareit",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheIntegrationTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+
+    @Test
+    public void userReadsHitCacheAndSeeUpdates() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        UserDto user = userService.create(UserDto.builder()
+                .name("cached user")
+                .email("cached@test.ru")
+                .build());
+
+        try {
+            sessionFactory.getCache().evict(User.class, user.getId());
+            statistics.clear();
+
+            userService.getById(user.getId());
+            userService.getById(user.getId());
+
+            assertThat(statistics.getSecondLevelCacheMissCount(), equalTo(1L));
+            assertThat(statistics.getSecondLevelCacheHitCount(), equalTo(1L));
+
+            userService.update(user.getId(), UserDto.builder().name("renamed user").build());
+
+            assertThat(userService.getById(user.getId()).getName(), equalTo("renamed user"));
+        } finally {
+            userService.delete(user.getId());
+        }
+    }
+}
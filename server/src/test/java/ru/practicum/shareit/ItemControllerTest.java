@@ -3,11 +3,14 @@ package ru.practicum.shareit;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -21,18 +24,29 @@ import ru.practicum.shareit.item.dto.ItemResponseDto;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -218,9 +232,10 @@ public class ItemControllerTest {
                 .name(itemCreateDto.getName())
                 .description(itemCreateDto.getDescription())
                 .available(itemCreateDto.getAvailable())
+                .comments(List.of())
                 .build();
 
-        when(itemService.get(anyLong(), anyLong())).thenReturn(itemResponseDto);
+        when(itemService.get(anyLong(), anyLong(), eq(20))).thenReturn(itemResponseDto);
 
         mvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1L)
@@ -234,9 +249,34 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemCreateDto.getAvailable())));
     }
 
+    @Test
+    public void getItemByIdNotModified() throws Exception {
+        when(itemService.getVersionTag(anyLong(), anyLong())).thenReturn("1:0");
+        when(itemService.get(anyLong(), anyLong(), anyInt())).thenReturn(ItemResponseDto.builder()
+                .id(1L)
+                .comments(List.of())
+                .build());
+
+        MvcResult result = mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(304))
+                .andExpect(content().string(""));
+
+        verify(itemService, times(1)).get(anyLong(), anyLong(), anyInt());
+    }
+
     @Test
     public void getItemByIdWithNotExistsUser() throws Exception {
-        when(itemService.get(anyLong(), anyLong())).thenThrow(new NotFoundException("test exception"));
+        when(itemService.get(anyLong(), anyLong(), anyInt())).thenThrow(new NotFoundException("test exception"));
 
         mvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1L)
@@ -248,6 +288,56 @@ public class ItemControllerTest {
                         assertThat(result.getResolvedException() instanceof NotFoundException, equalTo(true)));
     }
 
+    @Test
+    public void getItemCommentsWithNextCursor() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CommentResponseDto comment1 = CommentResponseDto.builder()
+                .id(2L)
+                .text("second comment")
+                .authorName("author")
+                .created(created.plusHours(1))
+                .build();
+        CommentResponseDto comment2 = CommentResponseDto.builder()
+                .id(1L)
+                .text("first comment")
+                .authorName("author")
+                .created(created)
+                .build();
+
+        when(itemService.getComments(1L, null, 2)).thenReturn(List.of(comment1, comment2));
+        when(itemService.getComments(1L, "abc", 2)).thenReturn(List.of());
+
+        mvc.perform(get("/items/1/comments")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(header().string("X-Next-Cursor", new KeysetCursor(created, 1L).encode()))
+                .andExpect(jsonPath("$[0].text", is("second comment")))
+                .andExpect(jsonPath("$[1].text", is("first comment")));
+
+        mvc.perform(get("/items/1/comments")
+                        .param("cursor", "abc")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(200))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/items/1?commentsSize=0", "/items/1?commentsSize=101",
+            "/items/1/comments?size=0", "/items/1/comments?size=101",
+            "/items?commentsSize=0", "/items?commentsSize=101"
+    })
+    public void getWithOutOfRangeCommentsSize(String url) throws Exception {
+        mvc.perform(get(url)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+
+        verifyNoInteractions(itemService);
+    }
+
     @Test
     public void getUserItems() throws Exception {
         ItemResponseDto itemResponseDto1 = ItemResponseDto.builder()
@@ -262,12 +352,14 @@ public class ItemControllerTest {
                 .name("test item2")
                 .description("test item2 description")
                 .available(true)
+                .nextCommentsCursor("abc")
                 .build();
 
-        when(itemService.getUserItems(anyLong())).thenReturn(List.of(itemResponseDto1, itemResponseDto2));
+        when(itemService.getUserItems(1L, 5)).thenReturn(List.of(itemResponseDto1, itemResponseDto2));
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1L)
+                        .param("commentsSize", "5")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
@@ -279,12 +371,13 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].id", is(itemResponseDto2.getId()), Long.class))
                 .andExpect(jsonPath("$[1].name", is(itemResponseDto2.getName())))
                 .andExpect(jsonPath("$[1].description", is(itemResponseDto2.getDescription())))
-                .andExpect(jsonPath("$[1].available", is(itemResponseDto2.getAvailable())));
+                .andExpect(jsonPath("$[1].available", is(itemResponseDto2.getAvailable())))
+                .andExpect(jsonPath("$[1].nextCommentsCursor", is("abc")));
     }
 
     @Test
     public void getNotExistsUserItems() throws Exception {
-        when(itemService.getUserItems(anyLong())).thenThrow(new NotFoundException("test exception"));
+        when(itemService.getUserItems(anyLong(), anyInt())).thenThrow(new NotFoundException("test exception"));
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1L)
@@ -305,7 +398,7 @@ public class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.searchItem(anyString())).thenReturn(List.of(itemCreateDto, itemCreateDto2));
+        when(itemService.searchItem(anyString(), anyInt(), anyInt())).thenReturn(List.of(itemCreateDto, itemCreateDto2));
 
         mvc.perform(get("/items/search?text=test")
                         .header("X-Sharer-User-Id", 1L)
@@ -323,6 +416,20 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].available", is(itemCreateDto2.getAvailable())));
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/items/search?text=test&from=-1", "/items/search?text=test&size=0",
+            "/items/search?text=test&size=101", "/items/search?text=test&from=2147483648"
+    })
+    public void searchItemsWithOutOfRangePaging(String url) throws Exception {
+        mvc.perform(get(url)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+
+        verifyNoInteractions(itemService);
+    }
+
     @Test
     public void searchItemsWithEmptyText() throws Exception {
         mvc.perform(get("/items/search?text=")
@@ -334,6 +441,33 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    public void streamSearchItemsAsNdjson() throws Exception {
+        ItemCreateDto itemCreateDto2 = ItemCreateDto.builder()
+                .id(2L)
+                .name("test item2")
+                .description("test item2 description")
+                .available(true)
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<ItemCreateDto> action = invocation.getArgument(1);
+            action.accept(itemCreateDto);
+            action.accept(itemCreateDto2);
+            return null;
+        }).when(itemService).streamSearchItem(eq("test"), any());
+
+        MvcResult result = mvc.perform(get("/items/search/stream?text=test")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().is(200))
+                .andExpect(content().string(mapper.writeValueAsString(itemCreateDto) + "\n"
+                        + mapper.writeValueAsString(itemCreateDto2) + "\n"));
+    }
+
     @Test
     public void addCommentToItem() throws Exception {
         CommentCreateDto commentCreateDto = CommentCreateDto.builder()
@@ -10,11 +10,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.RequestItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestServiceImpl;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -22,6 +24,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -113,8 +116,10 @@ public class ItemRequestServiceTest {
                 .build();
 
         given(itemRequestRepository.findAllByRequestorId(user1.getId()))
-                .willReturn(List.of(itemRequest));
-        given(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()))).willReturn(List.of(item));
+                .willReturn(views(itemRequest));
+        given(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()))).willReturn(List.of(
+                new RequestItemView(item.getId(), item.getName(), item.getOwner().getId(), item.getRequest().getId())
+        ));
         given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
 
         List<ItemRequestWithItemsDto> itemRequestWithItemsDto = itemRequestService.getUserRequests(user1.getId());
@@ -159,7 +164,7 @@ public class ItemRequestServiceTest {
                 .build();
 
         given(userRepository.findById(1L)).willReturn(Optional.of(user1));
-        given(itemRequestRepository.findAllByRequestorId(1L)).willReturn(List.of(
+        given(itemRequestRepository.findAllByRequestorId(1L)).willReturn(views(
                 itemRequest2,
                 itemRequest1,
                 itemRequest3)
@@ -187,7 +192,7 @@ public class ItemRequestServiceTest {
 
     @Test
     public void getRequestById() {
-        given(itemRequestRepository.findById(1L)).willReturn(Optional.of(itemRequest));
+        given(itemRequestRepository.findViewById(1L)).willReturn(Optional.of(views(itemRequest).get(0)));
 
         ItemRequestDto itemRequestDto = itemRequestService.getRequest(1L);
 
@@ -204,4 +209,10 @@ public class ItemRequestServiceTest {
                 () -> itemRequestService.getRequest(1L)
         );
     }
+
+    private static List<ItemRequestView> views(ItemRequest... requests) {
+        return Arrays.stream(requests)
+                .map(r -> new ItemRequestView(r.getId(), r.getDescription(), r.getCreated()))
+                .toList();
+    }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.practicum.shareit.item.FullTextItemSearch;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearch;
+import ru.practicum.shareit.item.LikeItemSearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Mockito.mock;
+
+public class ItemSearchSelectionTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(ItemRepository.class, () -> mock(ItemRepository.class))
+            .withBean(EntityManager.class, () -> mock(EntityManager.class))
+            .withUserConfiguration(FullTextItemSearch.class, LikeItemSearch.class);
+
+    @Test
+    public void fullTextSearchIsSelectedByDefault() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(ItemSearch.class), instanceOf(FullTextItemSearch.class)));
+    }
+
+    @Test
+    public void fullTextSearchIsSelectedExplicitly() {
+        contextRunner.withPropertyValues("shareit.search.engine=fulltext").run(context ->
+                assertThat(context.getBean(ItemSearch.class), instanceOf(FullTextItemSearch.class)));
+    }
+
+    @Test
+    public void likeSearchIsSelectedForTestProfile() {
+        contextRunner.withPropertyValues("shareit.search.engine=like").run(context ->
+                assertThat(context.getBean(ItemSearch.class), instanceOf(LikeItemSearch.class)));
+    }
+}
@@ -9,7 +9,9 @@ import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.user.UserService;
@@ -17,10 +19,13 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 
 @Transactional
 @SpringBootTest(
@@ -93,7 +98,7 @@ public class ItemServiceIntegrationTest {
 
         itemService.addComment(createdUser3.getId(), createdItem2.getId(), commentCreateDto);
 
-        List<ItemResponseDto> userItems = itemService.getUserItems(createdUser1.getId());
+        List<ItemResponseDto> userItems = itemService.getUserItems(createdUser1.getId(), 20);
 
         assertThat(userItems.get(0).getName(), equalTo("test item1"));
         assertThat(userItems.get(0).getDescription(), equalTo("test item1 description"));
@@ -107,4 +112,241 @@ public class ItemServiceIntegrationTest {
         assertThat(userItems.get(1).getComments().get(0).getText(), equalTo("test comment from user3"));
         assertThat(userItems.get(1).getComments().get(0).getAuthorName(), equalTo("test user3"));
     }
+
+    @Test
+    public void searchItemsRankedByNameAndPaged() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("search owner")
+                .email("search@test.ru")
+                .build());
+
+        ItemCreateDto byDescription = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Дрель")
+                .description("Аккумуляторная, подходит как отвертка")
+                .available(true)
+                .build());
+        ItemCreateDto byName = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Отвертка")
+                .description("Крестовая")
+                .available(true)
+                .build());
+        itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Отвертка сломанная")
+                .description("Не работает")
+                .available(false)
+                .build());
+
+        List<ItemCreateDto> firstPage = itemService.searchItem("оТвЕрТкА", 0, 1);
+        List<ItemCreateDto> secondPage = itemService.searchItem("оТвЕрТкА", 1, 1);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getId(), equalTo(byName.getId()));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(byDescription.getId()));
+        assertThat(itemService.searchItem("оТвЕрТкА", 2, 1).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void streamSearchItemsInIdOrder() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("stream owner")
+                .email("stream@test.ru")
+                .build());
+
+        ItemCreateDto first = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Палатка")
+                .description("Двухместная")
+                .available(true)
+                .build());
+        ItemCreateDto second = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Коврик")
+                .description("Для палатки")
+                .available(true)
+                .build());
+
+        List<ItemCreateDto> streamed = new ArrayList<>();
+        itemService.streamSearchItem("палатк", streamed::add);
+
+        assertThat(streamed.size(), equalTo(2));
+        assertThat(streamed.get(0).getId(), equalTo(first.getId()));
+        assertThat(streamed.get(1).getId(), equalTo(second.getId()));
+    }
+
+    @Test
+    public void versionTagFollowsItemCommentsAndBookings() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("tag owner")
+                .email("tag-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("tag booker")
+                .email("tag-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .build());
+
+        String ownerTag = itemService.getVersionTag(item.getId(), owner.getId());
+        String bookerTag = itemService.getVersionTag(item.getId(), booker.getId());
+        String ownerItemsTag = itemService.getUserItemsVersionTag(owner.getId());
+
+        assertThat(itemService.getVersionTag(item.getId(), owner.getId()), equalTo(ownerTag));
+
+        BookingDto booking = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plus(1, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().plus(2, ChronoUnit.DAYS))
+                .build());
+        bookingService.changeStatus(owner.getId(), booking.getId(), true);
+
+        assertThat(itemService.getVersionTag(item.getId(), owner.getId()), not(equalTo(ownerTag)));
+        assertThat(itemService.getVersionTag(item.getId(), booker.getId()), equalTo(bookerTag));
+        assertThat(itemService.getUserItemsVersionTag(owner.getId()), not(equalTo(ownerItemsTag)));
+
+        itemService.update(owner.getId(), item.getId(), ItemCreateDto.builder()
+                .name("Дрель-шуруповёрт")
+                .build());
+
+        assertThat(itemService.getVersionTag(item.getId(), booker.getId()), not(equalTo(bookerTag)));
+    }
+
+    @Test
+    public void availabilitySkipsActiveBookings() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("calendar owner")
+                .email("calendar-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("calendar booker")
+                .email("calendar-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("calendar item")
+                .description("calendar item description")
+                .available(true)
+                .build());
+
+        LocalDateTime from = LocalDateTime.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = from.plusDays(10);
+        bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(from.minusDays(1))
+                .end(from.plusDays(1))
+                .build());
+        BookingDto rejected = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(2))
+                .end(from.plusDays(3))
+                .build());
+        bookingService.changeStatus(owner.getId(), rejected.getId(), false);
+        BookingDto approved = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(4))
+                .end(from.plusDays(5))
+                .build());
+        bookingService.changeStatus(owner.getId(), approved.getId(), true);
+        bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(5))
+                .end(from.plusDays(6))
+                .build());
+
+        List<AvailabilityWindowDto> windows = itemService.getAvailability(item.getId(), from, to);
+
+        assertThat(windows, equalTo(List.of(
+                AvailabilityWindowDto.builder().start(from.plusDays(1)).end(from.plusDays(4)).build(),
+                AvailabilityWindowDto.builder().start(from.plusDays(6)).end(to).build()
+        )));
+    }
+
+    @Test
+    public void itemCommentsArePagedFromLatest() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("comments owner")
+                .email("comments-owner@test.ru")
+                .build());
+        UserDto author = userService.create(UserDto.builder()
+                .name("comments author")
+                .email("comments-author@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("comments item")
+                .description("comments item description")
+                .available(true)
+                .build());
+        bookingService.create(author.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(2, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(1, ChronoUnit.DAYS))
+                .build());
+        List<Long> commentIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            commentIds.add(itemService.addComment(author.getId(), item.getId(), CommentCreateDto.builder()
+                    .text("comment " + i)
+                    .build()).getId());
+        }
+
+        List<CommentResponseDto> latest = itemService.get(item.getId(), owner.getId(), 2).getComments();
+        String cursor = new KeysetCursor(latest.getLast().getCreated(), latest.getLast().getId()).encode();
+        List<CommentResponseDto> older = itemService.getComments(item.getId(), cursor, 2);
+        cursor = new KeysetCursor(older.getLast().getCreated(), older.getLast().getId()).encode();
+        List<CommentResponseDto> oldest = itemService.getComments(item.getId(), cursor, 2);
+
+        assertThat(latest.stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(commentIds.get(4), commentIds.get(3))));
+        assertThat(latest.get(0).getAuthorName(), equalTo("comments author"));
+        assertThat(older.stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(commentIds.get(2), commentIds.get(1))));
+        assertThat(oldest.stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(commentIds.get(0))));
+    }
+
+    @Test
+    public void userItemsEmbedLatestCommentsPerItem() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("list comments owner")
+                .email("list-comments-owner@test.ru")
+                .build());
+        UserDto author = userService.create(UserDto.builder()
+                .name("list comments author")
+                .email("list-comments-author@test.ru")
+                .build());
+        List<ItemCreateDto> items = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                    .name("list comments item " + i)
+                    .description("list comments item description")
+                    .available(true)
+                    .build());
+            bookingService.create(author.getId(), BookingCreateDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().minus(2, ChronoUnit.DAYS))
+                    .end(LocalDateTime.now().minus(1, ChronoUnit.DAYS))
+                    .build());
+            items.add(item);
+        }
+        List<Long> commentIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            commentIds.add(itemService.addComment(author.getId(), items.get(0).getId(), CommentCreateDto.builder()
+                    .text("comment " + i)
+                    .build()).getId());
+        }
+        Long onlyComment = itemService.addComment(author.getId(), items.get(1).getId(), CommentCreateDto.builder()
+                .text("only comment")
+                .build()).getId();
+
+        List<ItemResponseDto> userItems = itemService.getUserItems(owner.getId(), 2);
+        List<CommentResponseDto> older = itemService.getComments(items.get(0).getId(),
+                userItems.get(0).getNextCommentsCursor(), 2);
+
+        assertThat(userItems.get(0).getComments().stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(commentIds.get(2), commentIds.get(1))));
+        assertThat(older.stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(commentIds.get(0))));
+        assertThat(userItems.get(1).getComments().stream().map(CommentResponseDto::getId).toList(),
+                equalTo(List.of(onlyComment)));
+        assertThat(userItems.get(1).getNextCommentsCursor(), nullValue());
+    }
 }
@@ -7,9 +7,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -18,11 +22,14 @@ import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.CommentRepository;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearch;
 import ru.practicum.shareit.item.ItemServiceImpl;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -31,10 +38,15 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 
 @ActiveProfiles("test")
@@ -51,6 +63,8 @@ public class ItemServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearch itemSearch;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -65,8 +79,6 @@ public class ItemServiceTest {
     private LocalDateTime pastEndTime;
     private LocalDateTime currentStartTime;
     private LocalDateTime currentEndTime;
-    private LocalDateTime futureStartTime;
-    private LocalDateTime futureEndTime;
 
     private LocalDateTime commentCreateDate;
 
@@ -77,12 +89,14 @@ public class ItemServiceTest {
         userRepository = Mockito.mock(UserRepository.class);
         bookingRepository = Mockito.mock(BookingRepository.class);
         commentRepository = Mockito.mock(CommentRepository.class);
+        itemSearch = Mockito.mock(ItemSearch.class);
 
         itemService = new ItemServiceImpl(itemRepository,
                 userRepository,
                 bookingRepository,
                 commentRepository,
-                itemRequestRepository);
+                itemRequestRepository,
+                itemSearch);
 
         pastStartTime = LocalDateTime.now()
                 .minus(1, ChronoUnit.MONTHS)
@@ -97,13 +111,6 @@ public class ItemServiceTest {
         currentEndTime = LocalDateTime.now()
                 .plus(5, ChronoUnit.DAYS);
 
-        futureStartTime = LocalDateTime.now()
-                .plus(7, ChronoUnit.DAYS);
-
-        futureEndTime = LocalDateTime.now()
-                .plus(1, ChronoUnit.MONTHS)
-                .plus(5, ChronoUnit.DAYS);
-
         commentCreateDate = LocalDateTime.now();
 
         user1 = User.builder()
@@ -145,7 +152,7 @@ public class ItemServiceTest {
                 .build();
 
         given(itemRepository.save(item1Create)).willReturn(item1);
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
 
         ItemCreateDto responseDto = itemService.create(user1.getId(), ItemMapper.toItemDto(item1Create));
 
@@ -166,7 +173,7 @@ public class ItemServiceTest {
                 .owner(user1)
                 .build();
 
-        given(userRepository.findById(3L)).willReturn(Optional.empty());
+        given(userRepository.existsUserById(3L)).willReturn(false);
 
         assertThrowsExactly(NotFoundException.class,
                 () -> itemService.create(3L, ItemMapper.toItemDto(item1Create)));
@@ -180,7 +187,7 @@ public class ItemServiceTest {
 
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
         given(itemRepository.save(item1)).willReturn(item1);
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
 
         ItemCreateDto responseDto = itemService.update(user1.getId(),
                 item1.getId(),
@@ -215,7 +222,7 @@ public class ItemServiceTest {
     @Test
     public void updateWithNotOwnerUser() {
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
-        given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
+        given(userRepository.existsUserById(user2.getId())).willReturn(true);
 
         assertThrowsExactly(NotOwnerException.class,
                 () -> itemService.update(user2.getId(), item1.getId(), ItemMapper.toItemDto(item1))
@@ -234,7 +241,7 @@ public class ItemServiceTest {
 
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
         given(itemRepository.save(updateItem)).willReturn(item1);
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
 
         ItemCreateDto responseDto = itemService.update(user1.getId(), item1.getId(), ItemMapper.toItemDto(updateItem));
 
@@ -250,9 +257,9 @@ public class ItemServiceTest {
     @Test
     public void getCorrect() {
         given(itemRepository.findById(item2.getId())).willReturn(Optional.of(item2));
-        given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
+        given(userRepository.existsUserById(user2.getId())).willReturn(true);
 
-        ItemResponseDto responseDto = itemService.get(item2.getId(), user2.getId());
+        ItemResponseDto responseDto = itemService.get(item2.getId(), user2.getId(), 20);
 
         assertAll(
                 "Verify get Item",
@@ -265,12 +272,12 @@ public class ItemServiceTest {
 
     @Test
     public void getItemWithNotExistsItem() {
-        assertThrowsExactly(NotFoundException.class, () -> itemService.get(3L, user1.getId()));
+        assertThrowsExactly(NotFoundException.class, () -> itemService.get(3L, user1.getId(), 20));
     }
 
     @Test
     public void getItemWithNotExistsUser() {
-        assertThrowsExactly(NotFoundException.class, () -> itemService.get(item2.getId(), 3L));
+        assertThrowsExactly(NotFoundException.class, () -> itemService.get(item2.getId(), 3L, 20));
     }
 
     @Test
@@ -292,10 +299,10 @@ public class ItemServiceTest {
                 .build();
 
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
-        given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
-        given(commentRepository.findAllByItemId(item1.getId())).willReturn(List.of(comment1, comment2));
+        given(userRepository.existsUserById(user2.getId())).willReturn(true);
+        given(commentRepository.findViewsByItemId(eq(item1.getId()), any(), any(), any())).willReturn(views(comment1, comment2));
 
-        ItemResponseDto responseDto = itemService.get(item1.getId(), user2.getId());
+        ItemResponseDto responseDto = itemService.get(item1.getId(), user2.getId(), 20);
 
         assertAll(
                 "Verify get Comment for Item",
@@ -321,9 +328,9 @@ public class ItemServiceTest {
     @Test
     public void getItemByNotOwner() {
         given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
-        given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
+        given(userRepository.existsUserById(user2.getId())).willReturn(true);
 
-        ItemResponseDto responseDto = itemService.get(item1.getId(), user2.getId());
+        ItemResponseDto responseDto = itemService.get(item1.getId(), user2.getId(), 20);
 
         assertAll(
                 "Verify get Item by not Owner",
@@ -338,32 +345,17 @@ public class ItemServiceTest {
 
     @Test
     public void getItemByOwner() {
-        Booking lastBooking = Booking.builder()
-                .id(1L)
-                .start(pastStartTime)
-                .end(pastEndTime)
-                .booker(user1)
-                .item(item2)
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        Booking nextBooking = Booking.builder()
-                .id(2L)
-                .start(futureStartTime)
-                .end(futureEndTime)
-                .booker(user1)
-                .item(item2)
-                .status(BookingStatus.APPROVED)
-                .build();
+        BookingForItemView lastBooking = new BookingForItemView(1L, user1.getId());
+        BookingForItemView nextBooking = new BookingForItemView(2L, user1.getId());
 
         item2.setAvailable(true);
 
         given(itemRepository.findById(item2.getId())).willReturn(Optional.of(item2));
-        given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
-        given(bookingRepository.findLastBookingByItemId(item2.getId())).willReturn(List.of(lastBooking));
-        given(bookingRepository.findNextBookingByItemId(item2.getId())).willReturn(List.of(nextBooking));
+        given(userRepository.existsUserById(user2.getId())).willReturn(true);
+        given(bookingRepository.findLastBookingByItemId(item2.getId(), PageRequest.ofSize(1))).willReturn(List.of(lastBooking));
+        given(bookingRepository.findNextBookingByItemId(item2.getId(), PageRequest.ofSize(1))).willReturn(List.of(nextBooking));
 
-        ItemResponseDto responseDto = itemService.get(item2.getId(), user2.getId());
+        ItemResponseDto responseDto = itemService.get(item2.getId(), user2.getId(), 20);
 
         assertAll(
                 "Verify get Item by Owner",
@@ -396,39 +388,32 @@ public class ItemServiceTest {
                 .created(commentCreateDate)
                 .build();
 
-        Booking lastBooking = Booking.builder()
-                .id(1L)
-                .start(pastStartTime)
-                .end(pastEndTime)
-                .booker(user1)
-                .item(item1)
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        Booking nextBooking = Booking.builder()
-                .id(2L)
-                .start(futureStartTime)
-                .end(futureEndTime)
-                .booker(user1)
-                .item(item1)
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        Item item3 = Item.builder()
-                .id(3L)
-                .name("item 3")
-                .description("item 3 description")
-                .available(true)
-                .owner(user1)
-                .build();
-
-        given(itemRepository.findAllByOwnerId(user1.getId())).willReturn(List.of(item1, item3));
-        given(commentRepository.findByItemsIdIn(List.of(item1.getId(), item3.getId()))).willReturn(List.of(comment1, comment2));
-        given(userRepository.findById(user1.getId())).willReturn(Optional.of(user1));
-        given(bookingRepository.findLastBookingByItemIn(List.of(item1.getId(), item3.getId()))).willReturn(List.of(lastBooking));
-        given(bookingRepository.findNextBookingByItemIn(List.of(item1.getId(), item3.getId()))).willReturn(List.of(nextBooking));
-
-        List<ItemResponseDto> responseDtos = itemService.getUserItems(user1.getId());
+        Map<String, Object> itemWithBookings1 = new HashMap<>();
+        itemWithBookings1.put("id", item1.getId());
+        itemWithBookings1.put("name", item1.getName());
+        itemWithBookings1.put("description", item1.getDescription());
+        itemWithBookings1.put("available", item1.getAvailable());
+        itemWithBookings1.put("lastBookingId", 1L);
+        itemWithBookings1.put("lastBookerId", user1.getId());
+        itemWithBookings1.put("nextBookingId", 2L);
+        itemWithBookings1.put("nextBookerId", user1.getId());
+
+        Map<String, Object> itemWithBookings3 = new HashMap<>();
+        itemWithBookings3.put("id", 3L);
+        itemWithBookings3.put("name", "item 3");
+        itemWithBookings3.put("description", "item 3 description");
+        itemWithBookings3.put("available", true);
+
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+        given(itemRepository.findAllWithBookingsByOwnerId(user1.getId())).willReturn(List.of(
+                projectionFactory.createProjection(ItemWithBookingsDto.class, itemWithBookings1),
+                projectionFactory.createProjection(ItemWithBookingsDto.class, itemWithBookings3)
+        ));
+        given(commentRepository.findLatestViewsByItemIdIn(List.of(item1.getId(), 3L), 2)).willReturn(views(comment1, comment2));
+        given(userRepository.existsUserById(user1.getId())).willReturn(true);
+
+        List<ItemResponseDto> responseDtos = itemService.getUserItems(user1.getId(), 2);
 
         assertAll(
                 "Verify get all users Items",
@@ -439,12 +424,15 @@ public class ItemServiceTest {
                 () -> assertEquals(2, responseDtos.get(0).getComments().size()),
                 () -> assertEquals("comment 1 for item 1", responseDtos.get(0).getComments().get(0).getText()),
                 () -> assertEquals("comment 2 for item 1", responseDtos.get(0).getComments().get(1).getText()),
+                () -> assertEquals(new KeysetCursor(comment2.getCreated(), comment2.getId()).encode(),
+                        responseDtos.get(0).getNextCommentsCursor()),
                 () -> assertEquals(1L, responseDtos.get(0).getLastBooking().getId()),
                 () -> assertEquals(2L, responseDtos.get(0).getNextBooking().getId()),
                 () -> assertEquals(3L, responseDtos.get(1).getId()),
                 () -> assertEquals("item 3", responseDtos.get(1).getName()),
                 () -> assertEquals("item 3 description", responseDtos.get(1).getDescription()),
                 () -> assertEquals(List.of(), responseDtos.get(1).getComments()),
+                () -> assertNull(responseDtos.get(1).getNextCommentsCursor()),
                 () -> assertNull(responseDtos.get(1).getLastBooking()),
                 () -> assertNull(responseDtos.get(1).getNextBooking())
         );
@@ -452,9 +440,9 @@ public class ItemServiceTest {
 
     @Test
     public void getNotExistsUserItems() {
-        given(userRepository.findById(3L)).willReturn(Optional.empty());
+        given(userRepository.existsUserById(3L)).willReturn(false);
 
-        assertThrowsExactly(NotFoundException.class, () -> itemService.getUserItems(3L));
+        assertThrowsExactly(NotFoundException.class, () -> itemService.getUserItems(3L, 20));
     }
 
     @Test
@@ -490,7 +478,7 @@ public class ItemServiceTest {
                 .build();
 
         given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
-        given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item2));
+        given(itemRepository.existsItemById(item1.getId())).willReturn(true);
         given(commentRepository.save(CommentMapper.toComment(createComment1))).willReturn(comment1);
         given(bookingRepository.existsCurrentAndPastBookingByUserId(user2.getId())).willReturn(true);
 
@@ -525,7 +513,7 @@ public class ItemServiceTest {
                 .text("comment 1 for item 1")
                 .build();
 
-        given(itemRepository.findById(3L)).willReturn(Optional.empty());
+        given(itemRepository.existsItemById(3L)).willReturn(false);
         given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
 
         assertThrowsExactly(NotFoundException.class,
@@ -539,7 +527,7 @@ public class ItemServiceTest {
                 .text("comment 1 for item 1")
                 .build();
 
-        given(itemRepository.findById(item1.getId())).willReturn(Optional.of(item1));
+        given(itemRepository.existsItemById(item1.getId())).willReturn(true);
         given(userRepository.findById(user2.getId())).willReturn(Optional.of(user2));
         given(bookingRepository.existsCurrentAndPastBookingByUserId(user2.getId())).willReturn(false);
 
@@ -550,9 +538,9 @@ public class ItemServiceTest {
 
     @Test
     public void searchItem() {
-        given(itemRepository.findByNameOrDescriptionLike("item")).willReturn(List.of(item1, item2));
+        given(itemSearch.search("item", PageRequest.of(0, 20))).willReturn(List.of(item1, item2));
 
-        List<ItemCreateDto> responseDtos = itemService.searchItem("item");
+        List<ItemCreateDto> responseDtos = itemService.searchItem("item", 0, 20);
 
         assertAll(
                 "Verify search Item",
@@ -560,4 +548,10 @@ public class ItemServiceTest {
                 () -> assertEquals("item 2", responseDtos.get(1).getName())
         );
     }
+
+    private static List<CommentView> views(Comment... comments) {
+        return Arrays.stream(comments)
+                .map(c -> new CommentView(c.getId(), c.getItem().getId(), c.getText(), c.getAuthor().getName(), c.getCreated()))
+                .toList();
+    }
 }
@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingArchiver;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the V8 list partitioning of {@code booking} against a real Postgres: the archiver moves rows between the
+ * partitions, and the exclusion constraint on the hot partition still rejects overlapping active bookings.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresBookingArchiveIntegrationTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final BookingArchiver bookingArchiver;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from booking");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+
+        long ownerId = userService.create(UserDto.builder()
+                .name("owner")
+                .email("archive-owner@test.ru")
+                .build()).getId();
+        bookerId = userService.create(UserDto.builder()
+                .name("booker")
+                .email("archive-booker@test.ru")
+                .build()).getId();
+        itemId = itemService.create(ownerId, ItemCreateDto.builder()
+                .name("Дрель")
+                .description("Дрель ударная")
+                .available(true)
+                .build()).getId();
+    }
+
+    @Test
+    public void archiveMovesEndedBookingsToArchivePartition() {
+        BookingDto old = bookingService.create(bookerId, booking(-400, -399));
+        BookingDto recent = bookingService.create(bookerId, booking(-3, -2));
+
+        bookingArchiver.archive();
+
+        assertThat(countIn("booking_archive", old.getId()), is(1));
+        assertThat(countIn("booking_hot", old.getId()), is(0));
+        assertThat(countIn("booking_hot", recent.getId()), is(1));
+    }
+
+    @Test
+    public void overlappingInsertIsRejectedByConstraint() {
+        BookingDto waiting = bookingService.create(bookerId, booking(1, 3));
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("insert into booking (id, start_date, end_date, item_id, booker_id, status) "
+                                + "select nextval('booking_seq'), start_date + interval '1 day', end_date, item_id, "
+                                + "booker_id, 'WAITING' from booking where id = ?",
+                        waiting.getId()));
+
+        assertThat(e.getMessage(), containsString("booking_no_overlap"));
+    }
+
+    @Test
+    public void overlapWithArchivedBookingIsRejectedByService() {
+        BookingCreateDto old = booking(-400, -399);
+        BookingDto archived = bookingService.create(bookerId, old);
+
+        bookingArchiver.archive();
+
+        assertThat(countIn("booking_archive", archived.getId()), is(1));
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(bookerId, old));
+    }
+
+    private int countIn(String partition, long bookingId) {
+        return jdbcTemplate.queryForObject("select count(*) from " + partition + " where id = ?", Integer.class,
+                bookingId);
+    }
+
+    private BookingCreateDto booking(int startDays, int endDays) {
+        return BookingCreateDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plus(startDays, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().plus(endDays, ChronoUnit.DAYS))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs V7 over bookings that already overlap, as a database written before the overlap check would hold them.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PostgresBookingOverlapMigrationTest {
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    public void overlappingBookingsAreRejectedBeforeConstraintIsAdded() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(dataSource, "6");
+
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@test.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, available, user_id) values "
+                + "(1, 'Дрель', 'Дрель', true, 1), (2, 'Пила', 'Пила', true, 1)");
+        jdbcTemplate.update("insert into booking (id, start_date, end_date, item_id, booker_id, status) values "
+                + "(1, '2030-01-01', '2030-01-03', 1, 1, 'WAITING'), "
+                + "(2, '2030-01-02', '2030-01-04', 1, 1, 'APPROVED'), "
+                + "(3, '2030-01-04', '2030-01-05', 1, 1, 'WAITING'), "
+                + "(4, '2030-01-01', '2030-01-03', 1, 1, 'CANCELED'), "
+                + "(5, '2030-01-01', '2030-01-03', 2, 1, 'APPROVED'), "
+                + "(6, '2030-01-02', '2030-01-03', 2, 1, 'APPROVED')");
+
+        migrate(dataSource, "7");
+
+        Map<Long, String> statuses = jdbcTemplate.queryForList("select id, status from booking").stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("id")).longValue(), row -> (String) row.get("status")));
+        assertThat(statuses, equalTo(Map.of(
+                1L, "REJECTED",
+                2L, "APPROVED",
+                3L, "WAITING",
+                4L, "CANCELED",
+                5L, "APPROVED",
+                6L, "REJECTED")));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_constraint "
+                + "where conname = 'booking_no_overlap'", Integer.class), equalTo(1));
+    }
+
+    private static void migrate(DriverManagerDataSource dataSource, String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
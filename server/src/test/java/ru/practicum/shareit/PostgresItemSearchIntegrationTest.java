@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.FullTextItemSearch;
+import ru.practicum.shareit.item.ItemSearch;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Runs the default search engine against a real Postgres so the V3 {@code search_vector} column, its GIN indexes
+ * and the native search queries are exercised end to end. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresItemSearchIntegrationTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final ItemSearch itemSearch;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private long drillId;
+    private long saladId;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from booking");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+
+        long ownerId = userService.create(UserDto.builder()
+                .name("owner")
+                .email("search-owner@test.ru")
+                .build()).getId();
+        drillId = itemService.create(ownerId, item("Дрель ударная", "Мощная дрель для бетона", true)).getId();
+        saladId = itemService.create(ownerId, item("Миска", "Для салата, не дрель", true)).getId();
+        itemService.create(ownerId, item("Дрель старая", "Сломана", false));
+    }
+
+    @Test
+    public void defaultEngineIsFullText() {
+        assertThat(itemSearch, instanceOf(FullTextItemSearch.class));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_indexes "
+                + "where indexname = 'items_search_vector_idx'", Integer.class), is(1));
+    }
+
+    @Test
+    public void searchRanksNameMatchesFirstAndSkipsUnavailable() {
+        List<Long> found = itemService.searchItem("дрель", 0, 10).stream()
+                .map(ItemCreateDto::getId)
+                .toList();
+
+        assertThat(found, contains(drillId, saladId));
+    }
+
+    @Test
+    public void searchFallsBackToSubstringMatch() {
+        List<Long> found = itemService.searchItem("дрел", 0, 10).stream()
+                .map(ItemCreateDto::getId)
+                .toList();
+
+        assertThat(found, contains(drillId, saladId));
+        assertThat(itemService.searchItem("пылесос", 0, 10), empty());
+    }
+
+    @Test
+    public void streamSearchReturnsAvailableItemsInIdOrder() {
+        List<Long> found = new ArrayList<>();
+
+        itemService.streamSearchItem("дрел", item -> found.add(item.getId()));
+
+        assertThat(found, contains(drillId, saladId));
+    }
+
+    private static ItemCreateDto item(String name, String description, boolean available) {
+        return ItemCreateDto.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+public class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica";
+    private static final String SECOND_REPLICA_URL = "jdbc:h2:mem:routing-second-replica";
+
+    @AfterEach
+    public void clearRequest() {
+        ReplicaRoutingDataSource.endRead();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void readOnlyGetRequestGoesToReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select 0");
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectionUrl(routing), containsString("routing-replica"));
+    }
+
+    @Test
+    public void readWriteTransactionGoesToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select 0");
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+
+        assertThat(connectionUrl(routing), containsString("routing-primary"));
+    }
+
+    @Test
+    public void userWhoJustWroteReadsFromPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select 0");
+        routing.recordWrite(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        assertThat(connectionUrl(routing), containsString("routing-primary"));
+
+        ReplicaRoutingDataSource.beginRead(2L, null);
+        assertThat(connectionUrl(routing), containsString("routing-replica"));
+    }
+
+    @Test
+    public void clientWithRecentLastWriteReadsFromPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select 0");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource.beginRead(1L, Instant.now().minusSeconds(1));
+        assertThat(connectionUrl(routing), containsString("routing-primary"));
+
+        ReplicaRoutingDataSource.beginRead(1L, Instant.now().minusSeconds(60));
+        assertThat(connectionUrl(routing), containsString("routing-replica"));
+    }
+
+    @Test
+    public void replicaWithUnknownLagFallsBackToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select cast(null as double precision)");
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectionUrl(routing), containsString("routing-primary"));
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("select 60");
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectionUrl(routing), containsString("routing-primary"));
+    }
+
+    @Test
+    public void requestStaysOnOneReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY_URL),
+                Map.of("replica-0", new DriverManagerDataSource(REPLICA_URL),
+                        "replica-1", new DriverManagerDataSource(SECOND_REPLICA_URL)),
+                "select 0",
+                Duration.ofSeconds(5)
+        );
+        routing.afterPropertiesSet();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        String first = connectionUrl(routing);
+        assertThat(connectionUrl(routing), equalTo(first));
+        assertThat(connectionUrl(routing), equalTo(first));
+
+        ReplicaRoutingDataSource.beginRead(1L, null);
+        assertThat(connectionUrl(routing), not(equalTo(first)));
+    }
+
+    private static ReplicaRoutingDataSource routing(String lagQuery) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY_URL),
+                Map.of("replica-0", new DriverManagerDataSource(REPLICA_URL)),
+                lagQuery,
+                Duration.ofSeconds(5)
+        );
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static String connectionUrl(ReplicaRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.Cookie;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs GET requests through the routing filter, the lazy connection proxy and the JPA transaction manager against a
+ * second H2 database standing in for the replica. Rows inserted only into the replica show which database served
+ * the read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-it-primary",
+        "shareit.datasource.replica-urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "shareit.datasource.replica-lag-query=select 0"
+})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-it-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "test", "test"));
+
+    private final MockMvc mvc;
+
+    @BeforeAll
+    public static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA.getDataSource())
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    public void readOnlyGetIsServedByReplica() throws Exception {
+        REPLICA.update("insert into users (id, name, email) values (9001, 'replica user', 'replica-9001@test.ru')");
+
+        mvc.perform(get("/users/{userId}", 9001))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("replica user"));
+    }
+
+    @Test
+    public void readAfterWriteIsServedByPrimary() throws Exception {
+        Cookie lastWrite = mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"writer\",\"email\":\"routing-writer@test.ru\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(HeaderName.LAST_WRITE_COOKIE);
+        assertThat(lastWrite, notNullValue());
+        REPLICA.update("insert into users (id, name, email) values (9002, 'replica user', 'replica-9002@test.ru')");
+
+        mvc.perform(get("/users/{userId}", 9002).cookie(lastWrite))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/users/{userId}", 9002))
+                .andExpect(status().isOk());
+    }
+}
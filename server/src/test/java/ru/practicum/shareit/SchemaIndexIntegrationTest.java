@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Calls every indexed repository query and runs EXPLAIN on the SQL Hibernate actually sent, so the check
+ * follows the queries as they change instead of a hand-written copy of them.
+ */
+@SpringBootTest(
+        properties = {
+                "jdbc.url=jdbc:h2:mem:shareit",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.practicum.shareit.SchemaIndexIntegrationTest$CapturingStatementInspector"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaIndexIntegrationTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("findAllByBookerId", r -> r.bookingRepository.findAllByBookerId(1L, NOW, 10L, PAGE)),
+                query("findCurrentBooking", r -> r.bookingRepository.findCurrentBooking(1L, NOW, 10L, PAGE)),
+                query("findPastBooking", r -> r.bookingRepository.findPastBooking(1L, NOW, 10L, PAGE)),
+                query("findFutureBooking", r -> r.bookingRepository.findFutureBooking(1L, NOW, 10L, PAGE)),
+                query("findBookingByStatus", r -> r.bookingRepository
+                        .findBookingByStatus(1L, BookingStatus.WAITING, NOW, 10L, PAGE)),
+                query("findBookingByItemsOwner", r -> r.bookingRepository.findBookingByItemsOwner(1L, NOW, 10L, PAGE)),
+                query("findCurrentBookingByItemsOwner", r -> r.bookingRepository
+                        .findCurrentBookingByItemsOwner(1L, NOW, 10L, PAGE)),
+                query("findPastBookingByItemsOwner", r -> r.bookingRepository
+                        .findPastBookingByItemsOwner(1L, NOW, 10L, PAGE)),
+                query("findFutureBookingByItemsOwner", r -> r.bookingRepository
+                        .findFutureBookingByItemsOwner(1L, NOW, 10L, PAGE)),
+                query("findBookingByOwnerIdAndStatus", r -> r.bookingRepository
+                        .findBookingByOwnerIdAndStatus(1L, BookingStatus.WAITING, NOW, 10L, PAGE)),
+                query("findLastBookingByItemId", r -> r.bookingRepository.findLastBookingByItemId(1L, PageRequest.ofSize(1))),
+                query("findNextBookingByItemId", r -> r.bookingRepository.findNextBookingByItemId(1L, PageRequest.ofSize(1))),
+                query("existsCurrentAndPastBookingByUserId", r -> r.bookingRepository
+                        .existsCurrentAndPastBookingByUserId(1L)),
+                query("existsOverlappingBooking", r -> r.bookingRepository
+                        .existsOverlappingBooking(1L, NOW, NOW.plusDays(1))),
+                query("findOverlappingBookingsByItemId", r -> r.bookingRepository
+                        .findOverlappingBookingsByItemId(1L, NOW, NOW.plusDays(1))),
+                query("findItemsByOwnerId", r -> r.itemRepository.findAllByOwnerId(1L)),
+                query("existsItemByOwnerId", r -> r.itemRepository.existsItemByOwnerId(1L)),
+                query("findAllWithBookingsByOwnerId", r -> r.itemRepository.findAllWithBookingsByOwnerId(1L)),
+                query("findAllByRequestIdIn", r -> r.itemRepository.findAllByRequestIdIn(List.of(1L, 2L))),
+                query("findViewsByItemId", r -> r.commentRepository.findViewsByItemId(1L, NOW, 10L, PAGE)),
+                query("findLatestViewsByItemIdIn", r -> r.commentRepository
+                        .findLatestViewsByItemIdIn(List.of(1L, 2L), 20)),
+                query("findAllByRequestorId", r -> r.itemRequestRepository.findAllByRequestorId(1L)),
+                query("findAllViews", r -> r.itemRequestRepository.findAllViews(PageRequest.of(0, 3))),
+                query("findByEmail", r -> r.userRepository.findByEmail("user@mail.ru")),
+                query("existsEmail", r -> r.userRepository.existsEmail("user@mail.ru"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    public void queryUsesIndex(String name, Consumer<SchemaIndexIntegrationTest> call) {
+        List<String> statements = capture(call);
+
+        assertThat(statements, not(empty()));
+        for (String sql : statements) {
+            assertThat(sql, explain(sql), not(containsString("tableScan")));
+        }
+    }
+
+    private List<String> capture(Consumer<SchemaIndexIntegrationTest> call) {
+        return transactionTemplate.execute(status -> {
+            CapturingStatementInspector.STATEMENTS.clear();
+            call.accept(this);
+            return List.copyOf(CapturingStatementInspector.STATEMENTS);
+        });
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setNull(i, Types.NULL);
+            }
+        }, (ResultSet rs) -> rs.next() ? rs.getString(1) : null);
+    }
+
+    private static Arguments query(String name, Consumer<SchemaIndexIntegrationTest> call) {
+        return Arguments.of(name, call);
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
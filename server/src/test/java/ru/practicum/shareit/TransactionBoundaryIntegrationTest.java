@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the endpoints that map lazy associations with open-in-view off and outside any test transaction,
+ * so a lazy load that escapes its service transaction fails with a 500 here.
+ */
+@SpringBootTest(properties = "jdbc.url=jdbc:h2:mem:shareit")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class TransactionBoundaryIntegrationTest {
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final ApplicationContext context;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    @Test
+    public void endpointsDoNotLoadLazilyOutsideTransactions() throws Exception {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class), emptyArray());
+
+        UserDto owner = userService.create(UserDto.builder()
+                .name("boundary owner")
+                .email("boundary-owner@test.ru")
+                .build());
+        UserDto booker = userService.create(UserDto.builder()
+                .name("boundary booker")
+                .email("boundary-booker@test.ru")
+                .build());
+        ItemCreateDto item = itemService.create(owner.getId(), ItemCreateDto.builder()
+                .name("boundary item")
+                .description("boundary item description")
+                .available(true)
+                .build());
+        BookingDto booking = bookingService.create(booker.getId(), BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minus(2, ChronoUnit.DAYS))
+                .end(LocalDateTime.now().minus(1, ChronoUnit.DAYS))
+                .build());
+
+        try {
+            bookingService.changeStatus(owner.getId(), booking.getId(), true);
+
+            mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                            .header(HeaderName.USER_ID, booker.getId()))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/bookings")
+                            .header(HeaderName.USER_ID, booker.getId()))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/bookings/owner")
+                            .header(HeaderName.USER_ID, owner.getId()))
+                    .andExpect(status().isOk());
+            mvc.perform(post("/items/{itemId}/comment", item.getId())
+                            .header(HeaderName.USER_ID, booker.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(CommentCreateDto.builder().text("comment").build())))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/items/{itemId}", item.getId())
+                            .header(HeaderName.USER_ID, owner.getId()))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/items")
+                            .header(HeaderName.USER_ID, owner.getId()))
+                    .andExpect(status().isOk());
+        } finally {
+            commentRepository.deleteAll(commentRepository.findAllByItemId(item.getId()));
+            bookingRepository.deleteById(booking.getId());
+            itemRepository.deleteById(item.getId());
+            userRepository.deleteById(booker.getId());
+            userRepository.deleteById(owner.getId());
+        }
+    }
+}